@@ -1,12 +1,22 @@
 package datastructures.concrete;
 
-import datastructures.concrete.dictionaries.ChainedHashDictionary;
-import datastructures.interfaces.IDictionary;
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
 import datastructures.interfaces.IDisjointSet;
 
+import java.util.Arrays;
+
 
 /**
  * See IDisjointSet for more details.
+ *
+ * Each root's entry in 'pointers' holds -rank - 1, and every other entry holds
+ * the index of its parent. findSet is iterative and compresses the path it
+ * walks, so deep trees never cost stack frames.
+ *
+ * By default, union links the root of smaller rank under the other. If the
+ * set is constructed with unionBySize, it instead links the root of the
+ * smaller set under the other. Either way, size(item) reports how many items
+ * share the item's set.
  */
 public class ArrayDisjointSet<T> implements IDisjointSet<T> {
     // Note: do NOT rename or delete this field. We will be inspecting it
@@ -15,86 +25,122 @@ public class ArrayDisjointSet<T> implements IDisjointSet<T> {
     // However, feel free to add more methods and private helper methods.
     // You will probably need to add one or two more fields in order to
     // successfully implement this class.
-    private IDictionary<T, Integer> nodes;
+    private ObjectIntDictionary<T> nodes;
+    // sizes[root] is the number of items in that root's set; meaningless for non-roots
+    private int[] sizes;
     private int numNodes;
+    private boolean unionBySize;
     private static final int DEFAULT_CAPACITY = 11;
 
     public ArrayDisjointSet() {
-        this.nodes = new ChainedHashDictionary<>();
+        this(false);
+    }
+
+    /**
+     * Creates an empty disjoint set that links by set size instead of by rank
+     * if 'unionBySize' is true.
+     */
+    public ArrayDisjointSet(boolean unionBySize) {
+        this.nodes = new ObjectIntDictionary<>();
         this.pointers = new int[DEFAULT_CAPACITY];
+        this.sizes = new int[DEFAULT_CAPACITY];
         this.numNodes = 0;
+        this.unionBySize = unionBySize;
     }
 
     @Override
     public void makeSet(T item) {
-        if (setContains(item)) {
+        // putIfAbsent both checks for the item and claims its index in one lookup
+        int nodeIndex = this.numNodes;
+        if (this.nodes.putIfAbsent(item, nodeIndex) != -1) {
             throw new IllegalArgumentException();
         } else {
             int rank = 0;
-            int nodeIndex = this.numNodes;
             this.numNodes++;
             if (nodeIndex == this.pointers.length) {
-                this.pointers = enlarge();
+                this.pointers = Arrays.copyOf(this.pointers, 2 * this.pointers.length);
+                this.sizes = Arrays.copyOf(this.sizes, this.pointers.length);
             }
-            this.nodes.put(item, nodeIndex);
             this.pointers[nodeIndex] = -1 * rank - 1;
+            this.sizes[nodeIndex] = 1;
         }
     }
 
-    private boolean setContains(T item) {
-        return (this.nodes.containsKey(item));
-    }
-
-    private int[] enlarge() {
-        int[] enlarged = new int[2 * this.pointers.length];
-        for (KVPair<T, Integer> id : this.nodes) {
-            enlarged[id.getValue()] = this.pointers[id.getValue()];
-        }
-        return enlarged;
+    // Returns the item's index, or -1 if it is not in this disjoint set
+    private int indexOf(T item) {
+        return this.nodes.get(item);
     }
 
     @Override
     public int findSet(T item) {
-        if (!setContains(item)) {
+        int index = indexOf(item);
+        if (index == -1) {
             throw new IllegalArgumentException();
         } else {
-            int index = this.nodes.get(item);
             return findSet(index);
         }
     }
 
+    /**
+     * Returns the number of items in the set containing the given item.
+     *
+     * @throws IllegalArgumentException  if the item is not contained inside this disjoint set
+     */
+    public int size(T item) {
+        return this.sizes[findSet(item)];
+    }
+
     private int findSet(int index) {
-        int set = this.pointers[index];
-        if (set < 0) {
-            return index;
-        } else {
-            return findSet(set);
+        int root = index;
+        while (this.pointers[root] >= 0) {
+            root = this.pointers[root];
         }
+        // Second pass: point every node on the path straight at the root
+        while (index != root) {
+            int parent = this.pointers[index];
+            this.pointers[index] = root;
+            index = parent;
+        }
+        return root;
     }
 
     @Override
     public void union(T item1, T item2) {
-        if (!setContains(item1)) {
+        int index1 = indexOf(item1);
+        int index2 = indexOf(item2);
+        if (index1 == -1) {
             throw new IllegalArgumentException("item1 is not contained inside this disjoint set");
-        } else if (!setContains(item2)) {
+        } else if (index2 == -1) {
             throw new IllegalArgumentException("item2 is not contained inside this disjoint set");
         }
-        int set1 = findSet(item1);
-        int set2 = findSet(item2);
+        int set1 = findSet(index1);
+        int set2 = findSet(index2);
         if (set1 == set2) {
             throw new IllegalArgumentException("item1 and item2 are already a part of the same set");
+        } else if (this.unionBySize) {
+            if (this.sizes[set1] > this.sizes[set2]) {
+                link(set2, set1);
+            } else {
+                link(set1, set2);
+            }
         } else {
             int rank1 = -1 * this.pointers[set1] - 1;
             int rank2 = -1 * this.pointers[set2] - 1;
 
-            if (rank1 < rank2) {
-                this.pointers[set1] = set2;
-            } else if (rank1 > rank2) {
-                this.pointers[set2] = set1;
+            if (rank1 > rank2) {
+                link(set2, set1);
             } else {
-                this.pointers[set1] = set2;
-                this.pointers[set2] = -1 * (rank2 + 1) - 1;
+                link(set1, set2);
             }
         }
     }
+
+    // Makes 'child' a child of 'root', keeping the root's rank an upper bound on its height
+    private void link(int child, int root) {
+        int childRank = -1 * this.pointers[child] - 1;
+        int rootRank = -1 * this.pointers[root] - 1;
+        this.pointers[child] = root;
+        this.pointers[root] = -1 * Math.max(rootRank, childRank + 1) - 1;
+        this.sizes[root] += this.sizes[child];
+    }
 }
@@ -7,6 +7,9 @@ import java.util.NoSuchElementException;
 
 /**
  * See IPriorityQueue for details on what each method must do.
+ *
+ * remove(...) has to scan the heap to find the item. IndexedArrayHeap does
+ * the same job in O(log n), and also supports decreaseKey and contains.
  */
 public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
     // See spec: you must implement a implement a 4-heap.
@@ -0,0 +1,275 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.ISet;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An ISet of non-negative ints, stored as one bit per possible item in an
+ * array of 64-bit words. Item i is bit (i % 64) of words[i / 64].
+ *
+ * This suits dense id spaces such as the vertex ids of a Graph: the set takes
+ * a bit per id rather than a hash entry per item, and union, intersect and
+ * difference with another BitSetSet work a whole word (64 items) at a time.
+ * The memory used grows with the largest item added, not with the number of
+ * items, so it is a poor fit for a few large or scattered ints.
+ *
+ * The int overloads of add, remove and contains avoid boxing.
+ */
+public class BitSetSet implements ISet<Integer> {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[] words;
+    private int size;
+
+    public BitSetSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set that can hold the items in [0, capacity) without
+     * growing.
+     *
+     * @throws IllegalArgumentException  if capacity < 0
+     */
+    public BitSetSet(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        }
+        this.words = new long[wordsFor(capacity)];
+        this.size = 0;
+    }
+
+    private BitSetSet(long[] words) {
+        this.words = words;
+        this.size = cardinality(words);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException  if item is null or negative
+     */
+    @Override
+    public void add(Integer item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item cannot be null");
+        }
+        this.add(item.intValue());
+    }
+
+    /**
+     * Adds the given item to the set, if it is not already there.
+     *
+     * @throws IllegalArgumentException  if item is negative
+     */
+    public void add(int item) {
+        if (item < 0) {
+            throw new IllegalArgumentException("item cannot be negative");
+        }
+        int word = item >>> 6;
+        if (word >= this.words.length) {
+            this.words = Arrays.copyOf(this.words, Math.max(word + 1, 2 * this.words.length));
+        }
+        long bit = 1L << item;
+        if ((this.words[word] & bit) == 0) {
+            this.words[word] |= bit;
+            this.size++;
+        }
+    }
+
+    @Override
+    public void remove(Integer item) {
+        if (item == null) {
+            throw new NoSuchElementException();
+        }
+        this.remove(item.intValue());
+    }
+
+    /**
+     * Removes the given item from the set.
+     *
+     * @throws NoSuchElementException  if the set does not contain the given item
+     */
+    public void remove(int item) {
+        if (!this.contains(item)) {
+            throw new NoSuchElementException();
+        }
+        this.words[item >>> 6] &= ~(1L << item);
+        this.size--;
+    }
+
+    @Override
+    public boolean contains(Integer item) {
+        return item != null && this.contains(item.intValue());
+    }
+
+    /**
+     * Returns 'true' if the set contains this item and false otherwise.
+     */
+    public boolean contains(int item) {
+        int word = item >>> 6;
+        return item >= 0 && word < this.words.length && (this.words[word] & (1L << item)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the smallest item in this set that is at least 'from', or -1 if
+     * there is none. Lets callers walk the set without boxing:
+     *
+     *     for (int i = set.nextItem(0); i != -1; i = set.nextItem(i + 1)) { ... }
+     */
+    public int nextItem(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        int word = from >>> 6;
+        if (word >= this.words.length) {
+            return -1;
+        }
+        // Clear the bits below 'from' in its own word
+        long bits = this.words[word] & (-1L << from);
+        while (bits == 0) {
+            word++;
+            if (word == this.words.length) {
+                return -1;
+            }
+            bits = this.words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    @Override
+    public void addAll(ISet<Integer> other) {
+        if (other instanceof BitSetSet) {
+            long[] otherWords = ((BitSetSet) other).words;
+            if (otherWords.length > this.words.length) {
+                this.words = Arrays.copyOf(this.words, otherWords.length);
+            }
+            for (int i = 0; i < otherWords.length; i++) {
+                this.words[i] |= otherWords[i];
+            }
+            this.size = cardinality(this.words);
+        } else {
+            for (Integer item : other) {
+                this.add(item);
+            }
+        }
+    }
+
+    @Override
+    public void retainAll(ISet<Integer> other) {
+        if (other instanceof BitSetSet) {
+            long[] otherWords = ((BitSetSet) other).words;
+            for (int i = 0; i < this.words.length; i++) {
+                this.words[i] &= i < otherWords.length ? otherWords[i] : 0;
+            }
+            this.size = cardinality(this.words);
+        } else {
+            for (int i = this.nextItem(0); i != -1; i = this.nextItem(i + 1)) {
+                if (!other.contains(i)) {
+                    this.remove(i);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void removeAll(ISet<Integer> other) {
+        if (other instanceof BitSetSet) {
+            long[] otherWords = ((BitSetSet) other).words;
+            int shared = Math.min(this.words.length, otherWords.length);
+            for (int i = 0; i < shared; i++) {
+                this.words[i] &= ~otherWords[i];
+            }
+            this.size = cardinality(this.words);
+        } else {
+            for (int i = this.nextItem(0); i != -1; i = this.nextItem(i + 1)) {
+                if (other.contains(i)) {
+                    this.remove(i);
+                }
+            }
+        }
+    }
+
+    // Unlike ChainedHashSet, there is no smaller side to prefer here: each of
+    // these touches every word of this set, and the word operations cost the
+    // same whichever way round they go.
+
+    @Override
+    public ISet<Integer> union(ISet<Integer> other) {
+        BitSetSet result = this.copy();
+        result.addAll(other);
+        return result;
+    }
+
+    @Override
+    public ISet<Integer> intersect(ISet<Integer> other) {
+        BitSetSet result = this.copy();
+        result.retainAll(other);
+        return result;
+    }
+
+    @Override
+    public ISet<Integer> difference(ISet<Integer> other) {
+        BitSetSet result = this.copy();
+        result.removeAll(other);
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the same items as this one.
+     */
+    public BitSetSet copy() {
+        return new BitSetSet(this.words.clone());
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new BitSetIterator(this);
+    }
+
+    private static int wordsFor(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+
+    // Counts the set bits in the given words
+    private static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static class BitSetIterator implements Iterator<Integer> {
+        private BitSetSet set;
+        private int next;
+
+        public BitSetIterator(BitSetSet set) {
+            this.set = set;
+            this.next = set.nextItem(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != -1;
+        }
+
+        @Override
+        public Integer next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int item = this.next;
+            this.next = this.set.nextItem(item + 1);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package datastructures.concrete;
+
+/**
+ * A blocked Bloom filter over item hash codes. It can say for sure that an
+ * item was never added, but can only say that an added item "might" be present.
+ *
+ * Unlike a plain Bloom filter, which sets k bits anywhere in its array, this
+ * one first picks a 512-bit block (one 64-byte cache line) for the item and
+ * sets all k bits inside that block. A lookup touches one cache line instead
+ * of k. The price is a slightly higher false-positive rate than a plain filter
+ * of the same size, since some blocks end up fuller than others.
+ *
+ * Items cannot be removed. The filter is sized when it is created; adding more
+ * items than its capacity still works, but the false-positive rate climbs.
+ */
+public class BlockedBloomFilter {
+    private static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / 64;
+    private static final int MAX_HASHES = 16;
+    private static final double MIN_BITS_PER_ITEM = 2;
+    private static final double MAX_BITS_PER_ITEM = 64;
+    // Arbitrary odd multipliers, one per bit set; see bitFor
+    private static final int[] SALTS = {
+        0x7857DD87, 0x2E84496F, 0xBA6F875D, 0x940EEE3D, 0x4DC2A627, 0x33406BC5, 0xE325FAA7, 0xB938451F,
+        0x68FB90D7, 0xC1D8FAC1, 0xB7740A63, 0xC2354E2B, 0x43E58845, 0x887E8401, 0x3EC33DD7, 0xA2DA95A9
+    };
+
+    private long[] words;
+    private int numBlocks;
+    // The number of bits set per item, k
+    private int numHashes;
+    private int capacity;
+    private double falsePositiveRate;
+
+    /**
+     * Creates an empty filter that holds 'capacity' items at about the given
+     * false-positive rate.
+     *
+     * @throws IllegalArgumentException  if capacity < 0
+     * @throws IllegalArgumentException  if falsePositiveRate is not strictly between 0 and 1
+     */
+    public BlockedBloomFilter(int capacity, double falsePositiveRate) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        // Start from the textbook optimum for a plain Bloom filter, m/n =
+        // -ln(p) / ln(2)^2 bits per item, then add bits until the blocked
+        // layout meets the target too. At low rates that takes a few more.
+        double bitsPerItem = Math.max(MIN_BITS_PER_ITEM,
+                -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        while (expectedRate(bitsPerItem) > falsePositiveRate && bitsPerItem < MAX_BITS_PER_ITEM) {
+            bitsPerItem += 0.25;
+        }
+        long totalBits = (long) Math.ceil(Math.max(capacity, 1) * bitsPerItem);
+        this.numBlocks = (int) Math.min((totalBits + BLOCK_BITS - 1) / BLOCK_BITS, Integer.MAX_VALUE / WORDS_PER_BLOCK);
+        this.words = new long[this.numBlocks * WORDS_PER_BLOCK];
+        this.numHashes = hashesFor(bitsPerItem);
+        this.capacity = capacity;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Records the given item, which may be null.
+     */
+    public void add(Object item) {
+        long hash = mix(item == null ? 0 : item.hashCode());
+        int base = this.blockFor(hash) * WORDS_PER_BLOCK;
+        for (int i = 0; i < this.numHashes; i++) {
+            int bit = bitFor(hash, i);
+            this.words[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Returns 'false' if the given item was definitely never added, and 'true'
+     * if it might have been.
+     */
+    public boolean mightContain(Object item) {
+        long hash = mix(item == null ? 0 : item.hashCode());
+        int base = this.blockFor(hash) * WORDS_PER_BLOCK;
+        // AND the bits together rather than returning at the first clear one.
+        // Where that first clear bit falls is random, so an early return is a
+        // branch the CPU mispredicts about once per miss, and each mispredict
+        // stops it from working ahead on the caller's next lookup.
+        long all = 1;
+        for (int i = 0; i < this.numHashes; i++) {
+            int bit = bitFor(hash, i);
+            all &= this.words[base + (bit >>> 6)] >>> bit;
+        }
+        return all != 0;
+    }
+
+    /**
+     * Returns the number of items this filter was sized for.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the false-positive rate this filter was sized for.
+     */
+    public double falsePositiveRate() {
+        return this.falsePositiveRate;
+    }
+
+    // Returns k = (m/n) * ln(2), the number of bits to set per item
+    private static int hashesFor(double bitsPerItem) {
+        return (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerItem * Math.log(2))));
+    }
+
+    // Returns the false-positive rate a full filter with the given number of
+    // bits per item should have. The number of items that land in any one
+    // block is about Poisson distributed, so this averages the rate of a
+    // single 512-bit Bloom filter over that distribution.
+    private static double expectedRate(double bitsPerItem) {
+        int numHashes = hashesFor(bitsPerItem);
+        double itemsPerBlock = BLOCK_BITS / bitsPerItem;
+        int maxItems = (int) (itemsPerBlock + 10 * Math.sqrt(itemsPerBlock) + 10);
+        double rate = 0;
+        // The chance that the block holds exactly 'items' items
+        double chance = Math.exp(-itemsPerBlock);
+        for (int items = 0; items <= maxItems; items++) {
+            if (items > 0) {
+                chance *= itemsPerBlock / items;
+            }
+            double bitIsSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) numHashes * items);
+            rate += chance * Math.pow(bitIsSet, numHashes);
+        }
+        return rate;
+    }
+
+    // Maps the high 32 bits of the hash onto [0, numBlocks) without a division
+    private int blockFor(long hash) {
+        return (int) (((hash >>> 32) * this.numBlocks) >>> 32);
+    }
+
+    // Returns the i-th bit, in [0, 512), to set within the block: the top 9
+    // bits of the low half of the hash times the i-th salt. (Deriving every
+    // bit from one start and step instead leaves too few distinct patterns,
+    // which puts a floor under the false-positive rate.)
+    private static int bitFor(long hash, int i) {
+        return ((int) hash * SALTS[i]) >>> (32 - 9);
+    }
+
+    // The 64-bit finalizer ("fmix64") of MurmurHash3, so that every bit of
+    // the hash code affects both the block and the bits chosen within it
+    private static long mix(int hashCode) {
+        long h = hashCode;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
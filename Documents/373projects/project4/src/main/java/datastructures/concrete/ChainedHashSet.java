@@ -1,12 +1,15 @@
 package datastructures.concrete;
 
 import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.concrete.dictionaries.DictionaryKind;
 import datastructures.interfaces.IDictionary;
+import datastructures.interfaces.IList;
 import datastructures.interfaces.ISet;
 import misc.exceptions.NoSuchKeyException;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * See ISet for more details on what each method is supposed to do.
@@ -14,15 +17,205 @@ import java.util.NoSuchElementException;
 public class ChainedHashSet<T> implements ISet<T> {
     // This should be the only field you need
     private IDictionary<T, Boolean> map;
+    // The kind of dictionary behind 'map', so that sets built from this one match it
+    private DictionaryKind kind;
+    // If not null, holds every item in 'map' (and possibly some removed ones),
+    // so contains(...) can turn away most missing items without probing 'map'
+    private BlockedBloomFilter filter;
 
     public ChainedHashSet() {
         // No need to change this method
         this.map = new ChainedHashDictionary<>();
+        this.kind = DictionaryKind.CHAINED;
+    }
+
+    /**
+     * Creates an empty set that can hold 'expectedSize' items without growing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ChainedHashSet(int expectedSize) {
+        this.map = new ChainedHashDictionary<>(expectedSize);
+        this.kind = DictionaryKind.CHAINED;
+    }
+
+    /**
+     * Creates an empty set backed by the given kind of hash dictionary.
+     */
+    public ChainedHashSet(DictionaryKind kind) {
+        this(kind, 0);
+    }
+
+    /**
+     * Creates an empty set backed by the given kind of hash dictionary, which
+     * can hold 'expectedSize' items without growing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ChainedHashSet(DictionaryKind kind, int expectedSize) {
+        this.map = kind.newDictionary(expectedSize);
+        this.kind = kind;
+    }
+
+    /**
+     * Creates an empty set that can hold 'expectedSize' items without growing,
+     * and that checks a Bloom filter before looking an item up.
+     *
+     * See ChainedHashSet(DictionaryKind, int, double) for when that helps.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     * @throws IllegalArgumentException  if falsePositiveRate is not strictly between 0 and 1
+     */
+    public ChainedHashSet(int expectedSize, double falsePositiveRate) {
+        this(DictionaryKind.CHAINED, expectedSize, falsePositiveRate);
+    }
+
+    /**
+     * Creates an empty set backed by the given kind of hash dictionary, which
+     * can hold 'expectedSize' items without growing, and that checks a Bloom
+     * filter before looking an item up.
+     *
+     * The filter answers most contains(...) calls for missing items with one
+     * cache line read, instead of a bucket probe and calls to equals. About
+     * 'falsePositiveRate' of those calls still go on to probe the set. Items
+     * that are present pay for both checks, so this only helps sets that
+     * mostly get asked about items they do not hold. Every item is still
+     * hashed once per call. Sizes past 'expectedSize' rebuild the filter.
+     *
+     * Sets returned by union, intersect and difference do not have a filter.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     * @throws IllegalArgumentException  if falsePositiveRate is not strictly between 0 and 1
+     */
+    public ChainedHashSet(DictionaryKind kind, int expectedSize, double falsePositiveRate) {
+        this(kind, expectedSize);
+        this.filter = new BlockedBloomFilter(expectedSize, falsePositiveRate);
     }
 
     @Override
     public void add(T item) {
         this.map.put(item, true);
+        if (this.filter != null) {
+            if (this.map.size() > this.filter.capacity()) {
+                this.rebuildFilter();
+            } else {
+                this.filter.add(item);
+            }
+        }
+    }
+
+    @Override
+    public void addAll(ISet<T> other) {
+        if (other instanceof ChainedHashSet) {
+            // Lets the dictionary size its table once for the whole batch
+            this.map.putAll(((ChainedHashSet<T>) other).map);
+        } else {
+            for (T item : other) {
+                this.map.put(item, true);
+            }
+        }
+        if (this.filter != null) {
+            if (this.map.size() > this.filter.capacity()) {
+                this.rebuildFilter();
+            } else {
+                other.forEach(this.filter::add);
+            }
+        }
+    }
+
+    @Override
+    public void retainAll(ISet<T> other) {
+        if (other.size() < this.size()) {
+            // Build the (smaller) result from scratch instead of removing most
+            // of this set one item at a time
+            this.map = this.intersectMap(other);
+            if (this.filter != null) {
+                this.rebuildFilter();
+            }
+        } else {
+            IList<T> toRemove = new DoubleLinkedList<>();
+            for (T item : this) {
+                if (!other.contains(item)) {
+                    toRemove.add(item);
+                }
+            }
+            for (T item : toRemove) {
+                this.map.remove(item);
+            }
+        }
+    }
+
+    @Override
+    public void removeAll(ISet<T> other) {
+        if (other == this) {
+            this.map = this.kind.newDictionary(0);
+            if (this.filter != null) {
+                this.rebuildFilter();
+            }
+        } else if (other.size() <= this.size()) {
+            for (T item : other) {
+                if (this.map.containsKey(item)) {
+                    this.map.remove(item);
+                }
+            }
+        } else {
+            IList<T> toRemove = new DoubleLinkedList<>();
+            for (T item : this) {
+                if (other.contains(item)) {
+                    toRemove.add(item);
+                }
+            }
+            for (T item : toRemove) {
+                this.map.remove(item);
+            }
+        }
+    }
+
+    @Override
+    public ISet<T> union(ISet<T> other) {
+        ChainedHashSet<T> result = new ChainedHashSet<>(this.kind, this.size() + other.size());
+        result.addAll(this);
+        result.addAll(other);
+        return result;
+    }
+
+    @Override
+    public ISet<T> intersect(ISet<T> other) {
+        ChainedHashSet<T> result = new ChainedHashSet<>(this.kind);
+        result.map = this.intersectMap(other);
+        return result;
+    }
+
+    @Override
+    public ISet<T> difference(ISet<T> other) {
+        ChainedHashSet<T> result = new ChainedHashSet<>(this.kind, this.size());
+        if (other.size() < this.size()) {
+            // Copying this set in bulk and then removing the few items of
+            // 'other' costs fewer lookups than testing every item of this set
+            result.addAll(this);
+            result.removeAll(other);
+        } else {
+            for (T item : this) {
+                if (!other.contains(item)) {
+                    result.map.put(item, true);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Returns a new dictionary holding the items in both this set and 'other',
+    // found by walking whichever of the two is smaller
+    private IDictionary<T, Boolean> intersectMap(ISet<T> other) {
+        ISet<T> smaller = other.size() < this.size() ? other : this;
+        ISet<T> larger = smaller == this ? other : this;
+        IDictionary<T, Boolean> result = this.kind.newDictionary(smaller.size());
+        for (T item : smaller) {
+            if (larger.contains(item)) {
+                result.put(item, true);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -36,9 +229,23 @@ public class ChainedHashSet<T> implements ISet<T> {
 
     @Override
     public boolean contains(T item) {
+        if (this.filter != null && !this.filter.mightContain(item)) {
+            return false;
+        }
         return this.map.containsKey(item);
     }
 
+    // Replaces the filter with one that holds exactly the items in 'map', and
+    // that has room for at least twice as many once 'map' has outgrown it
+    private void rebuildFilter() {
+        int capacity = this.filter.capacity();
+        if (this.map.size() > capacity) {
+            capacity = 2 * this.map.size();
+        }
+        this.filter = new BlockedBloomFilter(capacity, this.filter.falsePositiveRate());
+        this.map.forEach((item, present) -> this.filter.add(item));
+    }
+
     @Override
     public int size() {
         return this.map.size();
@@ -46,26 +253,41 @@ public class ChainedHashSet<T> implements ISet<T> {
 
     @Override
     public Iterator<T> iterator() {
-        return new SetIterator<>(this.map.iterator());
+        return new SetIterator<>(this.map.cursor());
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        this.map.forEach((item, present) -> action.accept(item));
     }
 
+    /**
+     * Walks the dictionary with a cursor rather than its iterator, so that no
+     * KVPair is created for each item.
+     */
     private static class SetIterator<T> implements Iterator<T> {
-        // This should be the only field you need
-        private Iterator<KVPair<T, Boolean>> iter;
+        private IDictionary.Cursor<T, Boolean> cursor;
+        // Invariant: whether the cursor is on an item that next() has not returned yet
+        private boolean hasNext;
 
-        public SetIterator(Iterator<KVPair<T, Boolean>> iter) {
-            // No need to change this method.
-            this.iter = iter;
+        public SetIterator(IDictionary.Cursor<T, Boolean> cursor) {
+            this.cursor = cursor;
+            this.hasNext = cursor.advance();
         }
 
         @Override
         public boolean hasNext() {
-            return this.iter.hasNext();
+            return this.hasNext;
         }
 
         @Override
         public T next() {
-            return this.iter.next().getKey();
+            if (!this.hasNext) {
+                throw new NoSuchElementException();
+            }
+            T item = this.cursor.key();
+            this.hasNext = this.cursor.advance();
+            return item;
         }
     }
 }
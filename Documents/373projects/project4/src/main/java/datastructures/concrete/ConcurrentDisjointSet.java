@@ -0,0 +1,187 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IDisjointSet;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A disjoint set whose findSet and union may be called from many threads at
+ * once, without locks.
+ *
+ * The set is used in two phases:
+ *
+ * 1. Setup: every item is added with makeSet. This phase is NOT thread-safe;
+ *    only one thread may call makeSet, and nothing else may run alongside it.
+ * 2. Use: once setup is done and the set has been safely published to the
+ *    other threads (for example, by starting them afterwards), any number of
+ *    threads may call findSet, union, tryUnion, and connected concurrently.
+ *
+ * Each item's parent id lives in an AtomicIntegerArray, and a root is its own
+ * parent. A union links one root under the other with a single compare-and-set
+ * that only succeeds if the root is still a root, retrying otherwise (as in
+ * Anderson and Woll's algorithm). Roots are linked in a fixed pseudo-random
+ * order of their ids instead of by rank, which keeps trees shallow in
+ * expectation without any extra shared state.
+ *
+ * Finds use path splitting: each step tries once to point the current id at
+ * its grandparent. A failed attempt is simply skipped, so finds never wait on
+ * other threads.
+ *
+ * Under concurrent unions, the id returned by findSet may stop being the
+ * representative as soon as it is returned. Use connected to compare items.
+ */
+public class ConcurrentDisjointSet<T> implements IDisjointSet<T> {
+    private static final int DEFAULT_CAPACITY = 11;
+
+    private ObjectIntDictionary<T> ids;
+    private AtomicIntegerArray parents;
+    private int numIds;
+
+    public ConcurrentDisjointSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty disjoint set with room for 'expectedSize' items before
+     * it has to grow.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ConcurrentDisjointSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        this.ids = new ObjectIntDictionary<>(expectedSize);
+        this.parents = new AtomicIntegerArray(expectedSize);
+        this.numIds = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Not thread-safe: see the class comment.
+     */
+    @Override
+    public void makeSet(T item) {
+        if (this.numIds == this.parents.length()) {
+            AtomicIntegerArray enlarged = new AtomicIntegerArray(Math.max(DEFAULT_CAPACITY, 2 * this.numIds));
+            for (int i = 0; i < this.numIds; i++) {
+                enlarged.set(i, this.parents.get(i));
+            }
+            this.parents = enlarged;
+        }
+        // putIfAbsent both checks for the item and claims its id in one lookup
+        int id = this.numIds;
+        if (this.ids.putIfAbsent(item, id) != -1) {
+            throw new IllegalArgumentException("item is already a part of this disjoint set");
+        }
+        this.parents.set(id, id);
+        this.numIds++;
+    }
+
+    @Override
+    public int findSet(T item) {
+        return this.find(this.idOf(item));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * If another thread joins the two sets first, this throws just as if they
+     * had been joined before the call; use tryUnion to avoid that.
+     */
+    @Override
+    public void union(T item1, T item2) {
+        if (!this.tryUnion(item1, item2)) {
+            throw new IllegalArgumentException("item1 and item2 are already a part of the same set");
+        }
+    }
+
+    /**
+     * Combines the sets containing the two given items. Returns 'true' if this
+     * call joined them, and 'false' if they were already in the same set
+     * (possibly because another thread joined them first).
+     *
+     * @throws IllegalArgumentException  if either item is not contained inside this disjoint set
+     */
+    public boolean tryUnion(T item1, T item2) {
+        int id1 = this.idOf(item1);
+        int id2 = this.idOf(item2);
+        while (true) {
+            int root1 = this.find(id1);
+            int root2 = this.find(id2);
+            if (root1 == root2) {
+                return false;
+            }
+            // Always link the root that comes first in the random order, so two
+            // threads can never link a pair of roots under each other
+            if (priority(root1) > priority(root2)) {
+                int temp = root1;
+                root1 = root2;
+                root2 = temp;
+            }
+            if (this.parents.compareAndSet(root1, root1, root2)) {
+                return true;
+            }
+            // root1 stopped being a root after we found it; look again
+        }
+    }
+
+    /**
+     * Returns 'true' if the two given items are in the same set.
+     *
+     * @throws IllegalArgumentException  if either item is not contained inside this disjoint set
+     */
+    public boolean connected(T item1, T item2) {
+        int id1 = this.idOf(item1);
+        int id2 = this.idOf(item2);
+        while (true) {
+            int root1 = this.find(id1);
+            int root2 = this.find(id2);
+            if (root1 == root2) {
+                return true;
+            }
+            // If root1 is still a root, the two items really were apart at some
+            // instant; otherwise a concurrent union moved it, so look again
+            if (this.parents.get(root1) == root1) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items in this disjoint set.
+     */
+    public int size() {
+        return this.numIds;
+    }
+
+    private int idOf(T item) {
+        int id = this.ids.get(item);
+        if (id == -1) {
+            throw new IllegalArgumentException("item is not contained inside this disjoint set");
+        }
+        return id;
+    }
+
+    private int find(int id) {
+        int parent = this.parents.get(id);
+        while (parent != id) {
+            int grandparent = this.parents.get(parent);
+            if (grandparent != parent) {
+                this.parents.compareAndSet(id, parent, grandparent);
+            }
+            id = parent;
+            parent = grandparent;
+        }
+        return id;
+    }
+
+    // A fixed bijective scramble of the id, so the link order looks random
+    // but is the same every time
+    private static int priority(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
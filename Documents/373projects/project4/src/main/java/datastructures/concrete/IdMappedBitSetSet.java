@@ -0,0 +1,268 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.ISet;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An ISet of arbitrary items, kept as a BitSetSet of their ids in a Domain.
+ *
+ * A Domain gives each item it sees a dense int id, and any number of sets can
+ * share one Domain. Each lookup still hashes the item once to find its id.
+ * But two sets over the same Domain combine with word-parallel BitSetSet
+ * operations, and a set costs one bit per item in the Domain instead of one
+ * hash entry per item it holds.
+ */
+public class IdMappedBitSetSet<T> implements ISet<T> {
+    private Domain<T> domain;
+    private BitSetSet ids;
+
+    /**
+     * Creates an empty set over a Domain of its own.
+     */
+    public IdMappedBitSetSet() {
+        this(new Domain<>());
+    }
+
+    /**
+     * Creates an empty set over the given Domain.
+     *
+     * @throws IllegalArgumentException  if domain is null
+     */
+    public IdMappedBitSetSet(Domain<T> domain) {
+        if (domain == null) {
+            throw new IllegalArgumentException("domain cannot be null");
+        }
+        this.domain = domain;
+        this.ids = new BitSetSet(domain.size());
+    }
+
+    private IdMappedBitSetSet(Domain<T> domain, BitSetSet ids) {
+        this.domain = domain;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the Domain this set draws its ids from.
+     */
+    public Domain<T> domain() {
+        return this.domain;
+    }
+
+    /**
+     * Returns the ids of the items in this set. Changes made through either
+     * view are visible in the other.
+     */
+    public BitSetSet ids() {
+        return this.ids;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Gives the item an id in this set's Domain if it does not have one yet.
+     */
+    @Override
+    public void add(T item) {
+        this.ids.add(this.domain.idFor(item));
+    }
+
+    @Override
+    public void remove(T item) {
+        int id = this.domain.idOf(item);
+        if (id == -1) {
+            throw new NoSuchElementException();
+        }
+        this.ids.remove(id);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return this.ids.contains(this.domain.idOf(item));
+    }
+
+    @Override
+    public int size() {
+        return this.ids.size();
+    }
+
+    @Override
+    public void addAll(ISet<T> other) {
+        if (this.sharesDomain(other)) {
+            this.ids.addAll(((IdMappedBitSetSet<T>) other).ids);
+        } else {
+            ISet.super.addAll(other);
+        }
+    }
+
+    @Override
+    public void retainAll(ISet<T> other) {
+        if (this.sharesDomain(other)) {
+            this.ids.retainAll(((IdMappedBitSetSet<T>) other).ids);
+        } else {
+            ISet.super.retainAll(other);
+        }
+    }
+
+    @Override
+    public void removeAll(ISet<T> other) {
+        if (this.sharesDomain(other)) {
+            this.ids.removeAll(((IdMappedBitSetSet<T>) other).ids);
+        } else {
+            ISet.super.removeAll(other);
+        }
+    }
+
+    @Override
+    public ISet<T> union(ISet<T> other) {
+        IdMappedBitSetSet<T> result = this.copy();
+        result.addAll(other);
+        return result;
+    }
+
+    @Override
+    public ISet<T> intersect(ISet<T> other) {
+        IdMappedBitSetSet<T> result = this.copy();
+        result.retainAll(other);
+        return result;
+    }
+
+    @Override
+    public ISet<T> difference(ISet<T> other) {
+        IdMappedBitSetSet<T> result = this.copy();
+        result.removeAll(other);
+        return result;
+    }
+
+    /**
+     * Returns a new set over the same Domain holding the same items as this one.
+     */
+    public IdMappedBitSetSet<T> copy() {
+        return new IdMappedBitSetSet<>(this.domain, this.ids.copy());
+    }
+
+    private boolean sharesDomain(ISet<T> other) {
+        return other instanceof IdMappedBitSetSet && ((IdMappedBitSetSet<T>) other).domain == this.domain;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new IdMappedIterator<>(this.domain, this.ids);
+    }
+
+    /**
+     * Assigns dense int ids, starting at 0, to the items of one or more
+     * IdMappedBitSetSets. Ids are never reused or taken back.
+     */
+    public static class Domain<T> {
+        private ObjectIntDictionary<T> ids;
+        // items[id] is the item with that id
+        private T[] items;
+        private int size;
+
+        public Domain() {
+            this(0);
+        }
+
+        /**
+         * Creates an empty domain with room for 'expectedSize' items before it
+         * has to grow.
+         *
+         * @throws IllegalArgumentException  if expectedSize < 0
+         */
+        public Domain(int expectedSize) {
+            this.ids = new ObjectIntDictionary<>(expectedSize);
+            this.items = makeArrayOfT(Math.max(expectedSize, 1));
+            this.size = 0;
+        }
+
+        /**
+         * Creates a domain that has already assigned ids to the given items, in
+         * the order they are visited.
+         */
+        public Domain(ISet<T> items) {
+            this(items.size());
+            for (T item : items) {
+                this.idFor(item);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] makeArrayOfT(int size) {
+            return (T[]) new Object[size];
+        }
+
+        /**
+         * Returns the id of the given item, or -1 if it has none yet.
+         */
+        public int idOf(T item) {
+            return this.ids.get(item);
+        }
+
+        /**
+         * Returns the id of the given item, giving it the next unused id first
+         * if it has none yet.
+         */
+        public int idFor(T item) {
+            int id = this.ids.putIfAbsent(item, this.size);
+            if (id != -1) {
+                return id;
+            }
+            if (this.size == this.items.length) {
+                this.items = Arrays.copyOf(this.items, 2 * this.items.length);
+            }
+            this.items[this.size] = item;
+            this.size++;
+            return this.size - 1;
+        }
+
+        /**
+         * Returns the item with the given id.
+         *
+         * @throws IndexOutOfBoundsException  if no item has that id
+         */
+        public T itemOf(int id) {
+            if (id < 0 || id >= this.size) {
+                throw new IndexOutOfBoundsException();
+            }
+            return this.items[id];
+        }
+
+        /**
+         * Returns the number of items that have been given ids.
+         */
+        public int size() {
+            return this.size;
+        }
+    }
+
+    private static class IdMappedIterator<T> implements Iterator<T> {
+        private Domain<T> domain;
+        private BitSetSet ids;
+        private int next;
+
+        public IdMappedIterator(Domain<T> domain, BitSetSet ids) {
+            this.domain = domain;
+            this.ids = ids;
+            this.next = ids.nextItem(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != -1;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = this.domain.itemOf(this.next);
+            this.next = this.ids.nextItem(this.next + 1);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IDisjointSet;
+
+/**
+ * An IDisjointSet that assigns each item a dense int id when it is added, and
+ * keeps the sets themselves in an IntDisjointSet.
+ *
+ * Every call through the IDisjointSet interface still hashes its items once to
+ * find their ids. Clients that run many operations on the same items should
+ * look each id up once with idOf, and then work on ids() directly, with no
+ * hashing at all.
+ */
+public class IdMappedDisjointSet<T> implements IDisjointSet<T> {
+    private ObjectIntDictionary<T> ids;
+    private IntDisjointSet sets;
+
+    public IdMappedDisjointSet() {
+        this.ids = new ObjectIntDictionary<>();
+        this.sets = new IntDisjointSet();
+    }
+
+    @Override
+    public void makeSet(T item) {
+        // The id sets.makeSet() hands out next is always sets.size(), so claim
+        // it first; a duplicate then throws before any id is made
+        if (this.ids.putIfAbsent(item, this.sets.size()) != -1) {
+            throw new IllegalArgumentException("item is already a part of this disjoint set");
+        }
+        this.sets.makeSet();
+    }
+
+    @Override
+    public int findSet(T item) {
+        return this.sets.findSet(this.idOf(item));
+    }
+
+    @Override
+    public void union(T item1, T item2) {
+        if (!this.sets.union(this.idOf(item1), this.idOf(item2))) {
+            throw new IllegalArgumentException("item1 and item2 are already a part of the same set");
+        }
+    }
+
+    /**
+     * Returns the number of items in the set containing the given item.
+     *
+     * @throws IllegalArgumentException  if the item is not contained inside this disjoint set
+     */
+    public int size(T item) {
+        return this.sets.setSize(this.idOf(item));
+    }
+
+    /**
+     * Returns the id the given item was assigned when it was added. Ids are
+     * handed out in the order items were added, starting at 0.
+     *
+     * @throws IllegalArgumentException  if the item is not contained inside this disjoint set
+     */
+    public int idOf(T item) {
+        int id = this.ids.get(item);
+        if (id == -1) {
+            throw new IllegalArgumentException("item is not contained inside this disjoint set");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the underlying disjoint set of ids. Changes made through either
+     * view are visible in the other.
+     */
+    public IntDisjointSet ids() {
+        return this.sets;
+    }
+}
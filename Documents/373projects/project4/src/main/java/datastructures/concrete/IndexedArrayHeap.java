@@ -0,0 +1,206 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IIndexedPriorityQueue;
+import misc.exceptions.EmptyContainerException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A 4-heap that also remembers the slot each item lives in.
+ *
+ * This is the same heap as ArrayHeap, except that every swap also updates the
+ * 'positions' dictionary. That makes contains(...) O(1), and remove(...),
+ * decreaseKey(...) and changePriority(...) O(log n), instead of needing a
+ * linear scan to find the item first.
+ *
+ * See IIndexedPriorityQueue for details on what each method must do.
+ */
+public class IndexedArrayHeap<T extends Comparable<T>> implements IIndexedPriorityQueue<T> {
+    private static final int NUM_CHILDREN = 4;
+    private static final int DEFAULT_CAPACITY = 21;
+
+    private T[] heap;
+    private int heapSize;
+    // Invariant: for every i in [0, heapSize), positions.get(heap[i]) == i
+    private ObjectIntDictionary<T> positions;
+
+    public IndexedArrayHeap() {
+        this.heap = makeArrayOfT(DEFAULT_CAPACITY);
+        this.positions = new ObjectIntDictionary<>();
+        this.heapSize = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] makeArrayOfT(int size) {
+        return (T[]) (new Comparable[size]);
+    }
+
+    @Override
+    public T removeMin() {
+        if (size() == 0) {
+            throw new EmptyContainerException();
+        } else {
+            T min = this.heap[0];
+            removeAt(0);
+            return min;
+        }
+    }
+
+    @Override
+    public T peekMin() {
+        if (size() == 0) {
+            throw new EmptyContainerException();
+        } else {
+            return this.heap[0];
+        }
+    }
+
+    @Override
+    public void insert(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        } else if (this.positions.containsKey(item)) {
+            throw new IllegalArgumentException("item is already in the heap");
+        } else {
+            if (this.heapSize == this.heap.length) {
+                doubleCapacity();
+            }
+            int endIndex = this.heapSize;
+            this.heapSize++;
+            place(endIndex, item);
+            percolateUp(endIndex);
+        }
+    }
+
+    @Override
+    public void remove(T item) {
+        removeAt(find(item));
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return item != null && this.positions.containsKey(item);
+    }
+
+    @Override
+    public void decreaseKey(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        int index = find(item);
+        if (less(this.heap[index], item)) {
+            throw new IllegalArgumentException("new item is larger than the old one");
+        }
+        place(index, item);
+        percolateUp(index);
+    }
+
+    @Override
+    public void changePriority(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException();
+        }
+        int index = find(item);
+        place(index, item);
+        restore(index);
+    }
+
+    @Override
+    public int size() {
+        return this.heapSize;
+    }
+
+    private int find(T item) {
+        int index = item == null ? -1 : this.positions.get(item);
+        if (index == -1) {
+            throw new NoSuchElementException("given item does not exist");
+        }
+        return index;
+    }
+
+    // Removes the item in the given slot, filling the hole with the last item
+    private void removeAt(int index) {
+        T removed = this.heap[index];
+        int lastIndex = this.heapSize - 1;
+        T last = this.heap[lastIndex];
+        this.heap[lastIndex] = null;
+        this.heapSize--;
+        this.positions.remove(removed);
+        if (index != lastIndex) {
+            place(index, last);
+            restore(index);
+        }
+    }
+
+    // Moves the item in the given slot up or down, whichever is needed
+    private void restore(int index) {
+        if (index > 0 && less(this.heap[index], this.heap[findParent(index)])) {
+            percolateUp(index);
+        } else {
+            percolateDown(index);
+        }
+    }
+
+    private void percolateUp(int light) {
+        int heavy = findParent(light);
+        while (light > 0 && less(this.heap[light], this.heap[heavy])) {
+            swap(heavy, light);
+            light = heavy;
+            heavy = findParent(light);
+        }
+    }
+
+    private void percolateDown(int heavy) {
+        int light = findChild(heavy);
+        while (light > 0 && less(this.heap[light], this.heap[heavy])) {
+            swap(heavy, light);
+            heavy = light;
+            light = findChild(heavy);
+        }
+    }
+
+    private void swap(int parentIndex, int childIndex) {
+        T parent = this.heap[parentIndex];
+        place(parentIndex, this.heap[childIndex]);
+        place(childIndex, parent);
+    }
+
+    // Stores the item in the given slot and records where it went
+    private void place(int index, T item) {
+        this.heap[index] = item;
+        this.positions.put(item, index);
+    }
+
+    private void doubleCapacity() {
+        T[] oldArray = this.heap;
+        this.heap = makeArrayOfT(2 * this.heap.length);
+        for (int i = 0; i < this.heapSize; i++) {
+            this.heap[i] = oldArray[i];
+        }
+    }
+
+    private int findParent(int childIndex) {
+        return (childIndex - 1) / NUM_CHILDREN;
+    }
+
+    private int findChild(int parentIndex) {
+        int firstChild = NUM_CHILDREN * parentIndex + 1;
+        if (firstChild >= this.heapSize) {
+            return 0;
+        } else {
+            int lastChild = Math.min(firstChild + NUM_CHILDREN, this.heapSize) - 1;
+            int child = lastChild;
+            for (int i = lastChild - 1; i >= firstChild; i--) {
+                if (less(this.heap[i], this.heap[child])) {
+                    child = i;
+                }
+            }
+            return child;
+        }
+    }
+
+    private boolean less(T a, T b) {
+        return a.compareTo(b) < 0;
+    }
+}
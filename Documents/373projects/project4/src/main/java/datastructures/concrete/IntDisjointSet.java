@@ -0,0 +1,167 @@
+package datastructures.concrete;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint set (union-find) over the dense int ids 0 through size() - 1.
+ *
+ * This is the primitive counterpart of ArrayDisjointSet: because items are
+ * already ids, no operation does any hashing, boxing, or allocation (apart
+ * from makeSet occasionally growing the arrays). Use IdMappedDisjointSet to
+ * assign ids to arbitrary items once, up front.
+ *
+ * As in ArrayDisjointSet, each root's entry in 'pointers' holds -rank - 1 and
+ * every other entry holds the index of its parent. Unions link by rank, and
+ * findSet uses path splitting, so any sequence of operations runs in
+ * near-linear time and never recurses.
+ */
+public class IntDisjointSet {
+    private static final int DEFAULT_CAPACITY = 11;
+
+    private int[] pointers;
+    // sizes[root] is the number of ids in that root's set; meaningless for non-roots
+    private int[] sizes;
+    private int numIds;
+    private int numSets;
+
+    /**
+     * Creates an empty disjoint set.
+     */
+    public IntDisjointSet() {
+        this.pointers = new int[DEFAULT_CAPACITY];
+        this.sizes = new int[DEFAULT_CAPACITY];
+        this.numIds = 0;
+        this.numSets = 0;
+    }
+
+    /**
+     * Creates a disjoint set in which each of the ids 0 through size - 1 is in
+     * a set of its own.
+     *
+     * @throws IllegalArgumentException  if size < 0
+     */
+    public IntDisjointSet(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size cannot be negative");
+        }
+        this.pointers = new int[size];
+        this.sizes = new int[size];
+        Arrays.fill(this.pointers, -1);
+        Arrays.fill(this.sizes, 1);
+        this.numIds = size;
+        this.numSets = size;
+    }
+
+    /**
+     * Adds a new id in a set of its own, and returns it. Ids are handed out in
+     * order, so the new id is always the old value of size().
+     */
+    public int makeSet() {
+        if (this.numIds == this.pointers.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY, 2 * this.pointers.length);
+            this.pointers = Arrays.copyOf(this.pointers, capacity);
+            this.sizes = Arrays.copyOf(this.sizes, capacity);
+        }
+        int id = this.numIds;
+        this.pointers[id] = -1;
+        this.sizes[id] = 1;
+        this.numIds++;
+        this.numSets++;
+        return id;
+    }
+
+    /**
+     * Returns the number of ids in this disjoint set.
+     */
+    public int size() {
+        return this.numIds;
+    }
+
+    /**
+     * Returns the number of disjoint sets the ids are currently divided into.
+     */
+    public int numSets() {
+        return this.numSets;
+    }
+
+    /**
+     * Returns the representative id of the set containing the given id.
+     *
+     * @throws IllegalArgumentException  if the id is outside [0, size())
+     */
+    public int findSet(int id) {
+        this.checkId(id);
+        return this.find(id);
+    }
+
+    /**
+     * Returns 'true' if the two given ids are in the same set.
+     *
+     * @throws IllegalArgumentException  if either id is outside [0, size())
+     */
+    public boolean connected(int id1, int id2) {
+        return this.findSet(id1) == this.findSet(id2);
+    }
+
+    /**
+     * Returns the number of ids in the set containing the given id.
+     *
+     * @throws IllegalArgumentException  if the id is outside [0, size())
+     */
+    public int setSize(int id) {
+        return this.sizes[this.findSet(id)];
+    }
+
+    /**
+     * Combines the sets containing the two given ids. Returns 'true' if they
+     * were in different sets, and 'false' (changing nothing) if they were
+     * already in the same set.
+     *
+     * Unlike IDisjointSet.union, joining two ids already in the same set is not
+     * an error, so Kruskal-style loops need only one call per edge.
+     *
+     * @throws IllegalArgumentException  if either id is outside [0, size())
+     */
+    public boolean union(int id1, int id2) {
+        int root1 = this.findSet(id1);
+        int root2 = this.findSet(id2);
+        if (root1 == root2) {
+            return false;
+        }
+        int rank1 = -1 * this.pointers[root1] - 1;
+        int rank2 = -1 * this.pointers[root2] - 1;
+        if (rank1 > rank2) {
+            this.link(root2, root1);
+        } else {
+            this.link(root1, root2);
+            if (rank1 == rank2) {
+                this.pointers[root2] = -1 * (rank2 + 1) - 1;
+            }
+        }
+        this.numSets--;
+        return true;
+    }
+
+    private void link(int child, int root) {
+        this.pointers[child] = root;
+        this.sizes[root] += this.sizes[child];
+    }
+
+    // Uses path splitting: every id on the path is pointed at its grandparent
+    private int find(int id) {
+        while (this.pointers[id] >= 0) {
+            int parent = this.pointers[id];
+            if (this.pointers[parent] >= 0) {
+                this.pointers[id] = this.pointers[parent];
+            }
+            id = parent;
+        }
+        return id;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= this.numIds) {
+            throw new IllegalArgumentException("id is out of range: " + id);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package datastructures.concrete;
+
+import misc.exceptions.EmptyContainerException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A 4-heap of int ids ordered by double priorities, with decrease-key.
+ *
+ * Ids must lie in [0, capacity). Everything is stored in three primitive arrays
+ * allocated once in the constructor, so no operation allocates: there is no
+ * boxing, and no per-entry objects.
+ *
+ * Priorities are compared with Double.compare, so fractional priorities order
+ * correctly. NaN priorities are rejected.
+ *
+ * This is the primitive counterpart of IndexedArrayHeap, for callers that
+ * already have dense int ids, such as Graph's shortest-path searches. It
+ * skips the entry objects and the item-to-slot dictionary lookups that
+ * IndexedArrayHeap needs for arbitrary Comparable items.
+ */
+public class IntDoubleHeap {
+    private static final int NUM_CHILDREN = 4;
+    private static final int ABSENT = -1;
+
+    // heap[slot] is the id stored in that slot; keys[slot] is its priority.
+    private int[] heap;
+    private double[] keys;
+    // Invariant: positions[id] == slot if heap[slot] == id, or ABSENT if the id is not in the heap
+    private int[] positions;
+    private int heapSize;
+
+    /**
+     * Creates an empty heap that can hold the ids 0 through capacity - 1.
+     *
+     * @throws IllegalArgumentException  if capacity < 0
+     */
+    public IntDoubleHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative");
+        }
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.positions[i] = ABSENT;
+        }
+        this.heapSize = 0;
+    }
+
+    /**
+     * Returns the largest id this heap can hold, plus one.
+     */
+    public int capacity() {
+        return this.positions.length;
+    }
+
+    /**
+     * Returns the number of ids contained within this heap.
+     */
+    public int size() {
+        return this.heapSize;
+    }
+
+    /**
+     * Returns 'true' if this heap is empty, and false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.heapSize == 0;
+    }
+
+    /**
+     * Returns 'true' if the given id is currently in the heap.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < this.positions.length && this.positions[id] != ABSENT;
+    }
+
+    /**
+     * Returns the priority the given id currently has.
+     *
+     * @throws NoSuchElementException  if the id is not in the heap
+     */
+    public double priority(int id) {
+        return this.keys[find(id)];
+    }
+
+    /**
+     * Returns, but does not remove, the id with the smallest priority.
+     *
+     * @throws EmptyContainerException  if the heap is empty
+     */
+    public int peekMin() {
+        if (this.heapSize == 0) {
+            throw new EmptyContainerException();
+        }
+        return this.heap[0];
+    }
+
+    /**
+     * Returns the smallest priority in the heap.
+     *
+     * @throws EmptyContainerException  if the heap is empty
+     */
+    public double peekMinPriority() {
+        if (this.heapSize == 0) {
+            throw new EmptyContainerException();
+        }
+        return this.keys[0];
+    }
+
+    /**
+     * Removes and returns the id with the smallest priority.
+     *
+     * @throws EmptyContainerException  if the heap is empty
+     */
+    public int removeMin() {
+        if (this.heapSize == 0) {
+            throw new EmptyContainerException();
+        }
+        int min = this.heap[0];
+        removeAt(0);
+        return min;
+    }
+
+    /**
+     * Inserts the given id with the given priority.
+     *
+     * @throws IllegalArgumentException  if the id is outside [0, capacity)
+     * @throws IllegalArgumentException  if the id is already in the heap
+     * @throws IllegalArgumentException  if the priority is NaN
+     */
+    public void insert(int id, double priority) {
+        if (id < 0 || id >= this.positions.length) {
+            throw new IllegalArgumentException("id is out of range: " + id);
+        } else if (this.positions[id] != ABSENT) {
+            throw new IllegalArgumentException("id is already in the heap: " + id);
+        }
+        checkPriority(priority);
+        int endIndex = this.heapSize;
+        this.heapSize++;
+        place(endIndex, id, priority);
+        percolateUp(endIndex);
+    }
+
+    /**
+     * Lowers the priority of the given id.
+     *
+     * @throws NoSuchElementException    if the id is not in the heap
+     * @throws IllegalArgumentException  if the new priority is larger than the current one, or NaN
+     */
+    public void decreaseKey(int id, double priority) {
+        int index = find(id);
+        checkPriority(priority);
+        if (Double.compare(priority, this.keys[index]) > 0) {
+            throw new IllegalArgumentException("new priority is larger than the old one");
+        }
+        this.keys[index] = priority;
+        percolateUp(index);
+    }
+
+    /**
+     * Sets the priority of the given id, moving it up or down as needed.
+     *
+     * @throws NoSuchElementException    if the id is not in the heap
+     * @throws IllegalArgumentException  if the priority is NaN
+     */
+    public void changePriority(int id, double priority) {
+        int index = find(id);
+        checkPriority(priority);
+        this.keys[index] = priority;
+        restore(index);
+    }
+
+    /**
+     * Removes the given id from the heap.
+     *
+     * @throws NoSuchElementException  if the id is not in the heap
+     */
+    public void remove(int id) {
+        removeAt(find(id));
+    }
+
+    /**
+     * Removes every id from the heap. Runs in O(size), not O(capacity), so
+     * the same heap can be reused cheaply across many searches.
+     */
+    public void clear() {
+        for (int i = 0; i < this.heapSize; i++) {
+            this.positions[this.heap[i]] = ABSENT;
+        }
+        this.heapSize = 0;
+    }
+
+    private int find(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("given id is not in the heap: " + id);
+        }
+        return this.positions[id];
+    }
+
+    private void checkPriority(double priority) {
+        if (Double.isNaN(priority)) {
+            throw new IllegalArgumentException("priority cannot be NaN");
+        }
+    }
+
+    // Removes the id in the given slot, filling the hole with the last id
+    private void removeAt(int index) {
+        this.positions[this.heap[index]] = ABSENT;
+        int lastIndex = this.heapSize - 1;
+        this.heapSize--;
+        if (index != lastIndex) {
+            place(index, this.heap[lastIndex], this.keys[lastIndex]);
+            restore(index);
+        }
+    }
+
+    private void restore(int index) {
+        if (index > 0 && less(index, findParent(index))) {
+            percolateUp(index);
+        } else {
+            percolateDown(index);
+        }
+    }
+
+    // Moves the hole up instead of swapping, so each level costs one write per array
+    private void percolateUp(int index) {
+        int id = this.heap[index];
+        double key = this.keys[index];
+        while (index > 0) {
+            int parent = findParent(index);
+            if (Double.compare(key, this.keys[parent]) >= 0) {
+                break;
+            }
+            place(index, this.heap[parent], this.keys[parent]);
+            index = parent;
+        }
+        place(index, id, key);
+    }
+
+    private void percolateDown(int index) {
+        int id = this.heap[index];
+        double key = this.keys[index];
+        int child = findChild(index);
+        while (child > 0 && Double.compare(this.keys[child], key) < 0) {
+            place(index, this.heap[child], this.keys[child]);
+            index = child;
+            child = findChild(index);
+        }
+        place(index, id, key);
+    }
+
+    private void place(int index, int id, double key) {
+        this.heap[index] = id;
+        this.keys[index] = key;
+        this.positions[id] = index;
+    }
+
+    private boolean less(int a, int b) {
+        return Double.compare(this.keys[a], this.keys[b]) < 0;
+    }
+
+    private int findParent(int childIndex) {
+        return (childIndex - 1) / NUM_CHILDREN;
+    }
+
+    private int findChild(int parentIndex) {
+        int firstChild = NUM_CHILDREN * parentIndex + 1;
+        if (firstChild >= this.heapSize) {
+            return 0;
+        } else {
+            int lastChild = Math.min(firstChild + NUM_CHILDREN, this.heapSize) - 1;
+            int child = lastChild;
+            for (int i = lastChild - 1; i >= firstChild; i--) {
+                if (less(i, child)) {
+                    child = i;
+                }
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package datastructures.concrete;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import datastructures.interfaces.IDisjointSet;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint set whose changes can be undone, most recent first.
+ *
+ * Every makeSet and union is recorded in an undo log. checkpoint() marks the
+ * current position in the log, and rollback() undoes everything after the most
+ * recent mark, restoring the set to exactly its state at that checkpoint.
+ * undo() takes back just the last change.
+ *
+ * Undoing is only cheap if every change touches a constant number of entries,
+ * so this set links by rank but never compresses paths. Trees therefore have
+ * height O(log n), and findSet, union, and undoing a single change all take
+ * O(log n) time. That makes it a good fit for exploring small edits (joining
+ * two rooms, then taking the join back) without rebuilding from scratch.
+ *
+ * As in ArrayDisjointSet, each root's entry in 'pointers' holds -rank - 1 and
+ * every other entry holds the index of its parent.
+ */
+public class RollbackDisjointSet<T> implements IDisjointSet<T> {
+    private static final int DEFAULT_CAPACITY = 11;
+    // Marks a makeSet in the undo log, in place of a union's child root
+    private static final int MADE_SET = -1;
+
+    private ObjectIntDictionary<T> ids;
+    // items[id] is the item with that id, so an undone makeSet can forget it
+    private T[] items;
+    private int[] pointers;
+    // sizes[root] is the number of items in that root's set; meaningless for non-roots
+    private int[] sizes;
+    private int numIds;
+
+    // The undo log: for each change, the root that was linked under another
+    // root (or MADE_SET), that root's old entry in 'pointers', and whether the
+    // other root's rank went up
+    private int[] undoChildren;
+    private int[] undoChildPointers;
+    private boolean[] undoRankBumps;
+    private int undoSize;
+
+    // Each checkpoint is the length the undo log had when it was taken
+    private int[] checkpoints;
+    private int numCheckpoints;
+
+    public RollbackDisjointSet() {
+        this.ids = new ObjectIntDictionary<>();
+        this.items = makeArrayOfT(DEFAULT_CAPACITY);
+        this.pointers = new int[DEFAULT_CAPACITY];
+        this.sizes = new int[DEFAULT_CAPACITY];
+        this.numIds = 0;
+        this.undoChildren = new int[DEFAULT_CAPACITY];
+        this.undoChildPointers = new int[DEFAULT_CAPACITY];
+        this.undoRankBumps = new boolean[DEFAULT_CAPACITY];
+        this.undoSize = 0;
+        this.checkpoints = new int[DEFAULT_CAPACITY];
+        this.numCheckpoints = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] makeArrayOfT(int size) {
+        return (T[]) new Object[size];
+    }
+
+    @Override
+    public void makeSet(T item) {
+        if (this.numIds == this.pointers.length) {
+            int capacity = 2 * this.pointers.length;
+            this.items = Arrays.copyOf(this.items, capacity);
+            this.pointers = Arrays.copyOf(this.pointers, capacity);
+            this.sizes = Arrays.copyOf(this.sizes, capacity);
+        }
+        // putIfAbsent both checks for the item and claims its id in one lookup
+        int id = this.numIds;
+        if (this.ids.putIfAbsent(item, id) != -1) {
+            throw new IllegalArgumentException("item is already a part of this disjoint set");
+        }
+        this.items[id] = item;
+        this.pointers[id] = -1;
+        this.sizes[id] = 1;
+        this.numIds++;
+        this.log(MADE_SET, 0, false);
+    }
+
+    @Override
+    public int findSet(T item) {
+        return this.find(this.idOf(item));
+    }
+
+    @Override
+    public void union(T item1, T item2) {
+        int root1 = this.find(this.idOf(item1));
+        int root2 = this.find(this.idOf(item2));
+        if (root1 == root2) {
+            throw new IllegalArgumentException("item1 and item2 are already a part of the same set");
+        }
+        int rank1 = -1 * this.pointers[root1] - 1;
+        int rank2 = -1 * this.pointers[root2] - 1;
+        if (rank1 > rank2) {
+            this.link(root2, root1, false);
+        } else {
+            this.link(root1, root2, rank1 == rank2);
+        }
+    }
+
+    /**
+     * Returns 'true' if the two given items are in the same set.
+     *
+     * @throws IllegalArgumentException  if either item is not contained inside this disjoint set
+     */
+    public boolean connected(T item1, T item2) {
+        return this.findSet(item1) == this.findSet(item2);
+    }
+
+    /**
+     * Returns the number of items in the set containing the given item.
+     *
+     * @throws IllegalArgumentException  if the item is not contained inside this disjoint set
+     */
+    public int size(T item) {
+        return this.sizes[this.findSet(item)];
+    }
+
+    /**
+     * Marks the current state, so a later rollback() can return to it.
+     * Checkpoints nest: each rollback() returns to the most recent checkpoint
+     * that has not been rolled back yet.
+     */
+    public void checkpoint() {
+        if (this.numCheckpoints == this.checkpoints.length) {
+            this.checkpoints = Arrays.copyOf(this.checkpoints, 2 * this.checkpoints.length);
+        }
+        this.checkpoints[this.numCheckpoints] = this.undoSize;
+        this.numCheckpoints++;
+    }
+
+    /**
+     * Undoes every makeSet and union since the most recent checkpoint, and
+     * removes that checkpoint.
+     *
+     * @throws IllegalStateException  if there is no checkpoint to roll back to
+     */
+    public void rollback() {
+        if (this.numCheckpoints == 0) {
+            throw new IllegalStateException("there is no checkpoint to roll back to");
+        }
+        this.numCheckpoints--;
+        int target = this.checkpoints[this.numCheckpoints];
+        while (this.undoSize > target) {
+            this.undoLast();
+        }
+    }
+
+    /**
+     * Undoes the most recent makeSet or union, if it was made after the most
+     * recent checkpoint.
+     *
+     * @throws IllegalStateException  if nothing has changed since the most recent checkpoint
+     */
+    public void undo() {
+        int floor = this.numCheckpoints == 0 ? 0 : this.checkpoints[this.numCheckpoints - 1];
+        if (this.undoSize == floor) {
+            throw new IllegalStateException("there is nothing to undo");
+        }
+        this.undoLast();
+    }
+
+    /**
+     * Returns the number of checkpoints that have not been rolled back yet.
+     */
+    public int numCheckpoints() {
+        return this.numCheckpoints;
+    }
+
+    private void undoLast() {
+        this.undoSize--;
+        int child = this.undoChildren[this.undoSize];
+        if (child == MADE_SET) {
+            this.numIds--;
+            this.ids.remove(this.items[this.numIds]);
+            this.items[this.numIds] = null;
+        } else {
+            int root = this.pointers[child];
+            this.sizes[root] -= this.sizes[child];
+            if (this.undoRankBumps[this.undoSize]) {
+                this.pointers[root]++;
+            }
+            this.pointers[child] = this.undoChildPointers[this.undoSize];
+        }
+    }
+
+    private int idOf(T item) {
+        int id = this.ids.get(item);
+        if (id == -1) {
+            throw new IllegalArgumentException("item is not contained inside this disjoint set");
+        }
+        return id;
+    }
+
+    private int find(int id) {
+        while (this.pointers[id] >= 0) {
+            id = this.pointers[id];
+        }
+        return id;
+    }
+
+    private void link(int child, int root, boolean rankBumped) {
+        this.log(child, this.pointers[child], rankBumped);
+        this.pointers[child] = root;
+        this.sizes[root] += this.sizes[child];
+        if (rankBumped) {
+            this.pointers[root]--;
+        }
+    }
+
+    private void log(int child, int childPointer, boolean rankBumped) {
+        if (this.undoSize == this.undoChildren.length) {
+            this.undoChildren = Arrays.copyOf(this.undoChildren, 2 * this.undoChildren.length);
+            this.undoChildPointers = Arrays.copyOf(this.undoChildPointers, this.undoChildren.length);
+            this.undoRankBumps = Arrays.copyOf(this.undoRankBumps, this.undoChildren.length);
+        }
+        this.undoChildren[this.undoSize] = child;
+        this.undoChildPointers[this.undoSize] = childPointer;
+        this.undoRankBumps[this.undoSize] = rankBumped;
+        this.undoSize++;
+    }
+}
@@ -6,6 +6,9 @@ import misc.exceptions.NoSuchKeyException;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 //import datastructures.concrete.DoubleLinkedList.Node;
 
@@ -25,6 +28,21 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         this.capacity = DEFAULT_CAPACITY;
     }
 
+    /**
+     * Creates a dictionary with room for 'expectedSize' pairs before it
+     * has to grow.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ArrayDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        // Doubling a capacity of 0 would never make room
+        this.capacity = Math.max(expectedSize, 1);
+        this.pairs = makeArrayOfPairs(this.capacity);
+    }
+
     /**
      * This method will return a new, empty array of the given size
      * that can contain Pair<K, V> objects.
@@ -58,6 +76,12 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         }
     }
     
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        int index = find(key);
+        return index == -1 ? defaultValue : getPair(index).value;
+    }
+
     // Adds a key and value pair to the dictionary at the end of the dictionary
     // If the key already exists, its value is replaced with the new value
     @Override
@@ -67,11 +91,7 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
             Pair<K, V> entry = getPair(index);
             entry.value = value; // overwrites key's value
         } else { // adds key-value pair to end
-            if (fullCapacity()) {
-                doubleCapacity();
-            }
-            this.pairs[size()] = new Pair<>(key, value);
-            this.size++;
+            append(key, value);
         }
     }
     
@@ -79,21 +99,94 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
     // and shifting the subsequent pairs left
     @Override
     public V remove(K key) {
-        if (!containsKey(key)) {
+        int index = find(key);
+        if (index == -1) {
             throw new NoSuchKeyException();
         } else {
-            int index = find(key);
-            V value = get(key);
-            if (index == size() - 1) { // end case
-                this.pairs[index] = null; 
-            } else { // shifts subsequent key-value pairs left
-                for (int i = index; i < size() - 1; i++) {
-                    this.pairs[i] = getPair(i + 1);
-                }
+            return removeAt(index);
+        }
+    }
+
+    // Makes room for all of 'other' at once, in case none of its keys are here yet
+    @Override
+    public void putAll(IDictionary<K, V> other) {
+        ensureCapacity(size() + other.size());
+        other.forEach(this::put);
+    }
+
+    // Each of the next four methods looks the key up exactly once
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        int index = find(key);
+        if (index != -1) {
+            return getPair(index).value;
+        } else {
+            append(key, value);
+            return null;
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        int index = find(key);
+        if (index != -1) {
+            return getPair(index).value;
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            append(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int index = find(key);
+        V value = remappingFunction.apply(key, index == -1 ? null : getPair(index).value);
+        return store(index, key, value);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        int index = find(key);
+        V merged = index == -1 ? value : remappingFunction.apply(getPair(index).value, value);
+        return store(index, key, merged);
+    }
+
+    // Gives the key at the given index (or the absent key, if index is -1) the
+    // given value, removing the key instead if the value is null
+    private V store(int index, K key, V value) {
+        if (index == -1) {
+            if (value != null) {
+                append(key, value);
             }
-            this.size--;
-            return value;
+        } else if (value != null) {
+            getPair(index).value = value;
+        } else {
+            removeAt(index);
+        }
+        return value;
+    }
+
+    // Adds a key known not to be in the dictionary to the end
+    private void append(K key, V value) {
+        if (fullCapacity()) {
+            doubleCapacity();
+        }
+        this.pairs[size()] = new Pair<>(key, value);
+        this.size++;
+    }
+
+    // Removes the pair at the given index, shifting the subsequent pairs left
+    private V removeAt(int index) {
+        V value = getPair(index).value;
+        for (int i = index; i < size() - 1; i++) {
+            this.pairs[i] = getPair(i + 1);
         }
+        this.pairs[size() - 1] = null;
+        this.size--;
+        return value;
     }
     
     // Returns true if a certain key can be found in the dictionary
@@ -132,12 +225,23 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
     
     // Doubles the capacity of the dictionary
     private void doubleCapacity() {
-        this.capacity = 2 * this.capacity;
-        Pair<K, V>[] doublePairs = makeArrayOfPairs(this.capacity);
+        resize(2 * this.capacity);
+    }
+
+    // Grows the array to at least the given capacity, if it isn't that big already
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > this.capacity) {
+            resize(Math.max(minCapacity, 2 * this.capacity));
+        }
+    }
+
+    private void resize(int newCapacity) {
+        this.capacity = newCapacity;
+        Pair<K, V>[] newPairs = makeArrayOfPairs(this.capacity);
         for (int i = 0; i < size(); i++) {
-            doublePairs[i] = getPair(i);
+            newPairs[i] = getPair(i);
         }
-        this.pairs = doublePairs;
+        this.pairs = newPairs;
     }
     
     // Returns the key and value pair at the given index
@@ -145,6 +249,15 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         return this.pairs[index];
     }
 
+    // Let ChainedHashDictionary walk its buckets without allocating
+    K keyAt(int index) {
+        return this.pairs[index].key;
+    }
+
+    V valueAt(int index) {
+        return this.pairs[index].value;
+    }
+
     private static class Pair<K, V> {
         public K key;
         public V value;
@@ -165,6 +278,57 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         Iterator<KVPair<K, V>> iter = new ArrayDictionaryIterator<>(this.pairs, this.size);
         return iter;
     }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < size(); i++) {
+            action.accept(this.pairs[i].key, this.pairs[i].value);
+        }
+    }
+
+    @Override
+    public Cursor<K, V> cursor() {
+        return new ArrayDictionaryCursor<>(this.pairs, this.size);
+    }
+
+    private static class ArrayDictionaryCursor<K, V> implements Cursor<K, V> {
+        private Pair<K, V>[] pairs;
+        private int size;
+        // Invariant: the index of the current pair, which is only valid if
+        // it lies in [0, size)
+        private int index;
+
+        public ArrayDictionaryCursor(Pair<K, V>[] pairs, int size) {
+            this.pairs = pairs;
+            this.size = size;
+            this.index = -1;
+        }
+
+        @Override
+        public boolean advance() {
+            if (this.index < this.size) {
+                this.index++;
+            }
+            return this.index < this.size;
+        }
+
+        @Override
+        public K key() {
+            return this.current().key;
+        }
+
+        @Override
+        public V value() {
+            return this.current().value;
+        }
+
+        private Pair<K, V> current() {
+            if (this.index < 0 || this.index >= this.size) {
+                throw new NoSuchElementException();
+            }
+            return this.pairs[this.index];
+        }
+    }
     
     private static class ArrayDictionaryIterator<K, V> implements Iterator<KVPair<K, V>> {
         private Pair<K, V>[] pairs;
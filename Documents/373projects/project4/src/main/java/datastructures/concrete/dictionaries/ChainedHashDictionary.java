@@ -6,9 +6,27 @@ import misc.exceptions.NoSuchKeyException;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * See the spec and IDictionary for more details on what each method should do
+ *
+ * By default, the table grows all at once: when it fills up, every key is
+ * moved to a bigger table before the put that triggered it returns. A
+ * dictionary created with incrementalResize set instead keeps the old table
+ * next to the new one and moves a few of its buckets on every later write,
+ * so no single put ever pays for the whole move.
+ *
+ * How keys map to buckets is up to a HashStrategy. The default, MODULO,
+ * keeps the original modulo-a-Thâbit-number scheme and table sizes. MIXED
+ * scrambles each hash code and uses power-of-two tables; pass it to the
+ * constructor to opt in.
+ *
+ * Buckets start out as ArrayDictionaries. If poor or adversarial hash codes
+ * make one long, it is replaced with a TreeBucket, a balanced tree, so
+ * lookups and inserts in it take O(log n) time instead of O(n).
  */
 public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
     // You may not change or rename this field: we will be inspecting
@@ -17,22 +35,102 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
 
     private int numKeys;
     private int hashTableSize;
-    // Initial capacity = 11 (i.e. THABIT[3]); ith rehash/resize = indexThabit - 3.
-    private int indexThabit; // Initial index = 3
-    private static final int[] THABIT = {0, 2, 5, 11, 23, 47, 95, 191, 383, 767,
-                                            1535, 3071, 6143, 12287, 24575, 49151,
-                                            98303, 196607, 393215, 786431, 1572863,
-                                            3145727, 6291455, 12582911, 25165823,
-                                            50331647, 100663295, 201326591,
-                                            402653183, 805306367, 1610612735};
-    // See https://en.wikipedia.org/wiki/Thabit_number & https://oeis.org/A055010
-    // more information on Thâbit ibn Kurrah Numbers that follow 3*2^(n - 1) - 1
-    // for n>0. Any larger Thabit number exceeds Java's 2^32 integer limit.
+
+    // Only used when resizing incrementally. While a resize is in progress,
+    // every key is either in 'chains' or in oldChains[i] for some i >= migrateIndex;
+    // oldChains is null the rest of the time.
+    private boolean incrementalResize;
+    private IDictionary<K, V>[] oldChains;
+    private int oldTableSize;
+    private int migrateIndex;
+    // The number of old buckets moved by each write during a resize. The new
+    // table is about twice as big as the old one, so even moving a single bucket
+    // per write would finish well before the new table fills up.
+    private static final int MIGRATE_STEP = 4;
+
+    // Decides how keys map to buckets, and which table sizes we grow through
+    private HashStrategy hashStrategy;
+    // The table size is hashStrategy.tableSize(sizeStep); each resize adds one
+    private int sizeStep;
+    private static final int INITIAL_STEP = 3;
+
+    // A bucket that grows past TREEIFY_THRESHOLD keys becomes a TreeBucket,
+    // which finds keys by searching a balanced tree, and turns back into an
+    // ArrayDictionary once it shrinks to UNTREEIFY_THRESHOLD. The same numbers as java.util.HashMap:
+    // with a decent hash function, a bucket almost never gets that long unless
+    // the keys' hash codes collide. In a small table, growing the table is the
+    // better fix, and the load factor takes care of that.
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private static final int MIN_TREEIFY_TABLE_SIZE = 64;
 
     public ChainedHashDictionary() {
-        this.indexThabit = 3;
-        this.chains = makeArrayOfChains(THABIT[this.indexThabit]);
-        this.hashTableSize = THABIT[this.indexThabit];
+        this(0);
+    }
+
+    /**
+     * Creates a dictionary whose table is already big enough to hold
+     * 'expectedSize' keys without rehashing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ChainedHashDictionary(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    /**
+     * Creates a dictionary whose table is already big enough to hold
+     * 'expectedSize' keys without rehashing. If 'incrementalResize' is true,
+     * the table later grows a few buckets at a time instead of all at once,
+     * which keeps the worst-case cost of a put low at a small cost to the
+     * average (see the class comment).
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ChainedHashDictionary(int expectedSize, boolean incrementalResize) {
+        this(expectedSize, incrementalResize, HashStrategy.MODULO);
+    }
+
+    /**
+     * Creates an empty dictionary that maps keys to buckets using the given
+     * strategy.
+     *
+     * @throws IllegalArgumentException  if hashStrategy is null
+     */
+    public ChainedHashDictionary(HashStrategy hashStrategy) {
+        this(0, false, hashStrategy);
+    }
+
+    /**
+     * Creates a dictionary sized for 'expectedSize' keys, that resizes
+     * incrementally if 'incrementalResize' is true (see above) and maps keys
+     * to buckets using the given strategy.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     * @throws IllegalArgumentException  if hashStrategy is null
+     */
+    public ChainedHashDictionary(int expectedSize, boolean incrementalResize, HashStrategy hashStrategy) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        if (hashStrategy == null) {
+            throw new IllegalArgumentException("hashStrategy cannot be null");
+        }
+        this.hashStrategy = hashStrategy;
+        this.sizeStep = stepFor(INITIAL_STEP, expectedSize);
+        this.hashTableSize = hashStrategy.tableSize(this.sizeStep);
+        this.chains = makeArrayOfChains(this.hashTableSize);
+        this.incrementalResize = incrementalResize;
+    }
+
+    // Returns the first step from 'step' on whose table holds 'numKeys' keys
+    // at a load factor of at most 1 (or the last step, if none does)
+    private int stepFor(int step, int numKeys) {
+        int result = step;
+        while (result < this.hashStrategy.maxStep() && this.hashStrategy.tableSize(result) < numKeys) {
+            result++;
+        }
+        return result;
     }
 
     /**
@@ -59,34 +157,148 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
         }
     }
 
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        IDictionary<K, V> bucket = getBucket(key);
+        return bucket == null ? defaultValue : bucket.getOrDefault(key, defaultValue);
+    }
+
     @Override
     public void put(K key, V value) {
-        if (updateLoadFactor() >= 1) {
+        // Hashes the key once; the bucket's own put is the only scan
+        IDictionary<K, V> bucket = prepareBucket(key);
+        int before = bucket.size();
+        bucket.put(key, value);
+        this.numKeys += bucket.size() - before;
+        treeifyIfLong(key, bucket);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        IDictionary<K, V> bucket = prepareBucket(key);
+        int before = bucket.size();
+        V result = bucket.putIfAbsent(key, value);
+        this.numKeys += bucket.size() - before;
+        treeifyIfLong(key, bucket);
+        return result;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        IDictionary<K, V> bucket = prepareBucket(key);
+        int before = bucket.size();
+        V result = bucket.computeIfAbsent(key, mappingFunction);
+        this.numKeys += bucket.size() - before;
+        treeifyIfLong(key, bucket);
+        return result;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        IDictionary<K, V> bucket = prepareBucket(key);
+        int before = bucket.size();
+        V result = bucket.compute(key, remappingFunction);
+        this.numKeys += bucket.size() - before;
+        treeifyIfLong(key, bucket);
+        return result;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        IDictionary<K, V> bucket = prepareBucket(key);
+        int before = bucket.size();
+        V result = bucket.merge(key, value, remappingFunction);
+        this.numKeys += bucket.size() - before;
+        treeifyIfLong(key, bucket);
+        return result;
+    }
+
+    // Grows the table once so that everything fits, then adds each pair
+    // without checking the load factor again
+    @Override
+    public void putAll(IDictionary<K, V> other) {
+        finishMigration();
+        int step = stepFor(this.sizeStep, this.numKeys + other.size());
+        if (step != this.sizeStep) {
+            resizeTo(step);
+        }
+        Cursor<K, V> cursor = other.cursor();
+        while (cursor.advance()) {
+            K key = cursor.key();
+            IDictionary<K, V> bucket = bucketFor(key);
+            int before = bucket.size();
+            bucket.put(key, cursor.value());
+            this.numKeys += bucket.size() - before;
+            treeifyIfLong(key, bucket);
+        }
+    }
+
+    // Grows the table if it is full (or continues growing it), then returns
+    // the bucket the key belongs in, creating it if needed. Callers adjust
+    // numKeys by how much the bucket's size changes.
+    private IDictionary<K, V> prepareBucket(K key) {
+        if (this.oldChains != null) {
+            migrateSome();
+        } else if (updateLoadFactor() >= 1) {
            rehash();
         }
-        if (!containsKey(key)) {
-            this.numKeys++;
+        if (this.oldChains != null) {
+            // Move the key ahead of schedule, so it only ever lives in one table
+            IDictionary<K, V> oldBucket = this.oldChains[indexFor(key, this.oldTableSize)];
+            if (oldBucket != null && oldBucket.containsKey(key)) {
+                add(key, oldBucket.remove(key));
+            }
         }
-        add(key, value);
+        return bucketFor(key);
     }
 
-    private void add(K key, V value) {
-        IDictionary<K, V> bucket = getBucket(key);
+    // Returns the key's bucket in the current table, creating it if needed
+    private IDictionary<K, V> bucketFor(K key) {
+        int index = getIndex(key);
+        IDictionary<K, V> bucket = this.chains[index];
         if (bucket == null) {
             bucket = new ArrayDictionary<>();
+            this.chains[index] = bucket;
         }
+        return bucket;
+    }
+
+    private void add(K key, V value) {
+        IDictionary<K, V> bucket = bucketFor(key);
         bucket.put(key, value);
-        this.chains[getIndex(key)] = bucket;
+        treeifyIfLong(key, bucket);
+    }
+
+    // Replaces the key's bucket in the current table with a TreeBucket
+    // once it is too long to scan
+    private void treeifyIfLong(K key, IDictionary<K, V> bucket) {
+        if (bucket.size() > TREEIFY_THRESHOLD && bucket instanceof ArrayDictionary
+                && this.hashTableSize >= MIN_TREEIFY_TABLE_SIZE) {
+            IDictionary<K, V> tree = new TreeBucket<>(2 * bucket.size());
+            tree.putAll(bucket);
+            this.chains[getIndex(key)] = tree;
+        }
     }
 
     @Override
     public V remove(K key) {
+        if (this.oldChains != null) {
+            migrateSome();
+        }
         IDictionary<K, V> bucket = getBucket(key);
         if (bucket == null) {
             throw new NoSuchKeyException();
         } else {
+            V value = bucket.remove(key);
             this.numKeys--;
-            return bucket.remove(key);
+            int index = getIndex(key);
+            if (bucket.size() <= UNTREEIFY_THRESHOLD && bucket instanceof TreeBucket
+                    && this.chains[index] == bucket) {
+                IDictionary<K, V> small = new ArrayDictionary<>(bucket.size());
+                small.putAll(bucket);
+                this.chains[index] = small;
+            }
+            return value;
         }
     }
 
@@ -96,14 +308,27 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
         return bucket != null && bucket.containsKey(key);
     }
 
+    // Returns the bucket that holds the key, or, if no bucket does, the bucket
+    // in the current table where it would go (which may be null)
     private IDictionary<K, V> getBucket(K key) {
-        return this.chains[getIndex(key)];
+        IDictionary<K, V> bucket = this.chains[getIndex(key)];
+        if (this.oldChains != null && (bucket == null || !bucket.containsKey(key))) {
+            IDictionary<K, V> oldBucket = this.oldChains[indexFor(key, this.oldTableSize)];
+            if (oldBucket != null && oldBucket.containsKey(key)) {
+                return oldBucket;
+            }
+        }
+        return bucket;
     }
 
     private int getIndex(K key) {
+        return indexFor(key, this.hashTableSize);
+    }
+
+    private int indexFor(K key, int tableSize) {
         int index = 0;
         if (key != null) {
-            index = hashFunction(key);
+            index = this.hashStrategy.indexFor(key.hashCode(), tableSize);
         }
         return index;
     }
@@ -113,8 +338,24 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
         return this.numKeys;
     }
 
-    private int hashFunction(K key) {
-        return Math.abs(key.hashCode()) % this.hashTableSize;
+    /**
+     * Returns how evenly the keys are spread over the buckets: entry i of the
+     * result is the number of buckets that hold exactly i keys, and the last
+     * entry is for the longest bucket.
+     */
+    public int[] bucketSizeHistogram() {
+        finishMigration();
+        int longest = 0;
+        for (IDictionary<K, V> bucket : this.chains) {
+            if (bucket != null) {
+                longest = Math.max(longest, bucket.size());
+            }
+        }
+        int[] histogram = new int[longest + 1];
+        for (IDictionary<K, V> bucket : this.chains) {
+            histogram[bucket == null ? 0 : bucket.size()]++;
+        }
+        return histogram;
     }
 
     private double updateLoadFactor() {
@@ -122,26 +363,145 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
     }
 
     private void rehash() {
-        if (this.indexThabit < THABIT.length - 1) {
-            this.indexThabit++;
-            this.hashTableSize = THABIT[this.indexThabit];
-            Iterator<KVPair<K, V>> iter = new ChainedIterator<>(this.chains);
-            this.chains = makeArrayOfChains(this.hashTableSize);
-            while (iter.hasNext()) {
-                KVPair<K, V> pair = iter.next();
-                K key = pair.getKey();
-                V value = pair.getValue();
-                add(key, value);
+        if (this.sizeStep < this.hashStrategy.maxStep()) {
+            finishMigration();
+            if (this.incrementalResize) {
+                this.oldChains = this.chains;
+                this.oldTableSize = this.hashTableSize;
+                this.migrateIndex = 0;
+                this.sizeStep++;
+                this.hashTableSize = this.hashStrategy.tableSize(this.sizeStep);
+                this.chains = makeArrayOfChains(this.hashTableSize);
+                migrateSome();
+            } else {
+                resizeTo(this.sizeStep + 1);
             }
         }
     }
 
+    // Moves every key into a new table of the given step's size, all at once
+    private void resizeTo(int step) {
+        IDictionary<K, V>[] previous = this.chains;
+        this.sizeStep = step;
+        this.hashTableSize = this.hashStrategy.tableSize(step);
+        this.chains = makeArrayOfChains(this.hashTableSize);
+        for (IDictionary<K, V> bucket : previous) {
+            moveBucket(bucket);
+        }
+    }
+
+    // Moves the next MIGRATE_STEP old buckets (empty or not) into the current table
+    private void migrateSome() {
+        int end = Math.min(this.migrateIndex + MIGRATE_STEP, this.oldTableSize);
+        while (this.migrateIndex < end) {
+            moveBucket(this.oldChains[this.migrateIndex]);
+            this.oldChains[this.migrateIndex] = null;
+            this.migrateIndex++;
+        }
+        if (this.migrateIndex == this.oldTableSize) {
+            this.oldChains = null;
+        }
+    }
+
+    private void finishMigration() {
+        while (this.oldChains != null) {
+            migrateSome();
+        }
+    }
+
+    private void moveBucket(IDictionary<K, V> bucket) {
+        if (bucket != null) {
+            bucket.forEach(this::add);
+        }
+    }
+
     @Override
     public Iterator<KVPair<K, V>> iterator() {
-        // Note: you do not need to change this method
+        // Iterating takes O(n) time anyway, so any resize in progress is
+        // finished first and the iterator only has one table to walk
+        finishMigration();
         return new ChainedIterator<>(this.chains);
     }
 
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        finishMigration();
+        for (IDictionary<K, V> bucket : this.chains) {
+            if (bucket != null) {
+                bucket.forEach(action);
+            }
+        }
+    }
+
+    @Override
+    public Cursor<K, V> cursor() {
+        finishMigration();
+        return new ChainedCursor<>(this.chains);
+    }
+
+    /**
+     * Reads each bucket by position, so that moving to the next entry (or
+     * the next bucket) never allocates anything.
+     */
+    private static class ChainedCursor<K, V> implements Cursor<K, V> {
+        private IDictionary<K, V>[] chains;
+        private int tableIndex;
+        private IDictionary<K, V> bucket;
+        private int bucketSize;
+        // Invariant: the current entry is entry 'position' of 'bucket', if
+        // position < bucketSize; otherwise there is no current entry
+        private int position;
+
+        public ChainedCursor(IDictionary<K, V>[] chains) {
+            this.chains = chains;
+            this.tableIndex = -1;
+            this.bucket = null;
+            this.bucketSize = 0;
+            this.position = 0;
+        }
+
+        @Override
+        public boolean advance() {
+            this.position++;
+            while (this.position >= this.bucketSize) {
+                if (this.tableIndex + 1 >= this.chains.length) {
+                    this.bucket = null;
+                    this.bucketSize = 0;
+                    return false;
+                }
+                this.tableIndex++;
+                this.bucket = this.chains[this.tableIndex];
+                this.bucketSize = this.bucket == null ? 0 : this.bucket.size();
+                this.position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public K key() {
+            checkCurrent();
+            if (this.bucket instanceof ArrayDictionary) {
+                return ((ArrayDictionary<K, V>) this.bucket).keyAt(this.position);
+            }
+            return ((TreeBucket<K, V>) this.bucket).keyAt(this.position);
+        }
+
+        @Override
+        public V value() {
+            checkCurrent();
+            if (this.bucket instanceof ArrayDictionary) {
+                return ((ArrayDictionary<K, V>) this.bucket).valueAt(this.position);
+            }
+            return ((TreeBucket<K, V>) this.bucket).valueAt(this.position);
+        }
+
+        private void checkCurrent() {
+            if (this.position >= this.bucketSize) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
     /**
      * Hints:
      *
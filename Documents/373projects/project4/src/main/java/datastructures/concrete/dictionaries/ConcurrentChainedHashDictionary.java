@@ -0,0 +1,543 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.interfaces.IDictionary;
+import misc.exceptions.NoSuchKeyException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A chained hash dictionary that any number of threads may use at once.
+ *
+ * - Reads (get, getOrDefault, containsKey) never lock. Nodes are only ever
+ *   published through volatile writes, so a reader sees either the old or
+ *   the new state of a chain, never a half-built one.
+ * - A write to an empty bin is a single compare-and-set. A write to any other
+ *   bin locks that bin's first node, so writers only wait for each other when
+ *   they touch the same bin.
+ * - Resizing is cooperative. The thread that pushes the table past its load
+ *   factor creates the new table, and any writer that runs into a moved bin
+ *   helps move the rest, a stride of bins at a time. A moved bin is
+ *   replaced with a forwarding node, which sends readers and writers on to
+ *   the new table.
+ * - Iterators are weakly consistent, like those of ConcurrentHashMap: they
+ *   never throw because of a concurrent write, and they return the entries
+ *   that existed when the iterator was created exactly once each, unless
+ *   those entries are removed first. Changes made after the iterator was
+ *   created may or may not show up in it.
+ * - size() is exact when no writes are in progress.
+ *
+ * The atomic methods (putIfAbsent, computeIfAbsent, compute and merge) run
+ * their function while holding the bin's lock, so it must be short, and it
+ * must not modify this dictionary. (Some such modifications are caught and
+ * throw an IllegalStateException, but not all of them.)
+ *
+ * Keys are spread over bins the same way as HashStrategy.MIXED.
+ */
+public class ConcurrentChainedHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // The number of bins a thread claims at once while helping with a resize
+    private static final int TRANSFER_STRIDE = 16;
+    // Stands in for the null key, so that a null key field can mean "no key"
+    private static final Object NULL_KEY = new Object();
+
+    private volatile AtomicReferenceArray<Node<V>> table;
+    // The resize in progress, or null if there is none
+    private final AtomicReference<Resize<V>> resize;
+    private final LongAdder count;
+
+    public ConcurrentChainedHashDictionary() {
+        this(0);
+    }
+
+    /**
+     * Creates a dictionary whose table is already big enough to hold
+     * 'expectedSize' keys without resizing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ConcurrentChainedHashDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < MAX_CAPACITY && threshold(capacity) < expectedSize) {
+            capacity *= 2;
+        }
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.resize = new AtomicReference<>(null);
+        this.count = new LongAdder();
+    }
+
+    @Override
+    public V get(K key) {
+        Node<V> node = this.findNode(mask(key));
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        return node.value;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        Node<V> node = this.findNode(mask(key));
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return this.findNode(mask(key)) != null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        this.putValue(mask(key), value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return this.putValue(mask(key), value, true);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        // Most calls find the key already there, and this check needs no lock
+        Object masked = mask(key);
+        Node<V> node = this.findNode(masked);
+        if (node != null) {
+            return node.value;
+        }
+        return this.computeValue(masked, (present, old) -> present ? old : mappingFunction.apply(key));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return this.computeValue(mask(key), (present, old) -> remappingFunction.apply(key, old));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return this.computeValue(mask(key), (present, old) -> present ? remappingFunction.apply(old, value) : value);
+    }
+
+    @Override
+    public V remove(K key) {
+        Object masked = mask(key);
+        int hash = masked.hashCode();
+        AtomicReferenceArray<Node<V>> tab = this.table;
+        while (true) {
+            int index = indexFor(hash, tab.length());
+            Node<V> head = tab.get(index);
+            if (head == null) {
+                throw new NoSuchKeyException();
+            } else if (head instanceof ForwardingNode) {
+                tab = this.helpResize(tab, (ForwardingNode<V>) head);
+            } else {
+                synchronized (head) {
+                    if (tab.get(index) == head) {
+                        checkNotReserved(head);
+                        Node<V> previous = null;
+                        for (Node<V> node = head; node != null; node = node.next) {
+                            if (node.matches(hash, masked)) {
+                                if (previous == null) {
+                                    tab.set(index, node.next);
+                                } else {
+                                    previous.next = node.next;
+                                }
+                                this.count.decrement();
+                                return node.value;
+                            }
+                            previous = node;
+                        }
+                        throw new NoSuchKeyException();
+                    }
+                }
+                // Otherwise, the bin changed before we locked it, so try again
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        // Briefly negative if a remove is counted before the add it undoes
+        return (int) Math.max(this.count.sum(), 0);
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new ConcurrentIterator<>(this.table);
+    }
+
+    // Returns the node holding the (masked) key, or null, without locking
+    private Node<V> findNode(Object key) {
+        int hash = key.hashCode();
+        AtomicReferenceArray<Node<V>> tab = this.table;
+        Node<V> node = tab.get(indexFor(hash, tab.length()));
+        while (node instanceof ForwardingNode) {
+            tab = ((ForwardingNode<V>) node).nextTable;
+            node = tab.get(indexFor(hash, tab.length()));
+        }
+        while (node != null && !node.matches(hash, key)) {
+            node = node.next;
+        }
+        return node;
+    }
+
+    // Gives the key the value (or, if onlyIfAbsent, only adds it if it is
+    // missing). Returns the value the key had before, or null if it was missing.
+    private V putValue(Object key, V value, boolean onlyIfAbsent) {
+        int hash = key.hashCode();
+        AtomicReferenceArray<Node<V>> tab = this.table;
+        while (true) {
+            int index = indexFor(hash, tab.length());
+            Node<V> head = tab.get(index);
+            if (head == null) {
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value, null))) {
+                    this.addCount(tab);
+                    return null;
+                }
+            } else if (head instanceof ForwardingNode) {
+                tab = this.helpResize(tab, (ForwardingNode<V>) head);
+            } else {
+                synchronized (head) {
+                    if (tab.get(index) == head) {
+                        checkNotReserved(head);
+                        Node<V> node = head;
+                        while (true) {
+                            if (node.matches(hash, key)) {
+                                V old = node.value;
+                                if (!onlyIfAbsent) {
+                                    node.value = value;
+                                }
+                                return old;
+                            }
+                            if (node.next == null) {
+                                node.next = new Node<>(hash, key, value, null);
+                                break;
+                            }
+                            node = node.next;
+                        }
+                    } else {
+                        continue;
+                    }
+                }
+                this.addCount(tab);
+                return null;
+            }
+        }
+    }
+
+    // Replaces the key's value with 'remapper.apply(present, old)' while holding
+    // the bin's lock, removing the key if that is null. Returns the new value.
+    private V computeValue(Object key, Remapper<V> remapper) {
+        int hash = key.hashCode();
+        AtomicReferenceArray<Node<V>> tab = this.table;
+        while (true) {
+            int index = indexFor(hash, tab.length());
+            Node<V> head = tab.get(index);
+            if (head == null) {
+                // Claim the empty bin with a placeholder we already hold the
+                // lock on, so no one else can use the bin until we are done
+                Node<V> reservation = new Node<>(0, null, null, null);
+                synchronized (reservation) {
+                    if (tab.compareAndSet(index, null, reservation)) {
+                        V value = null;
+                        try {
+                            value = remapper.apply(false, null);
+                        } finally {
+                            tab.set(index, value == null ? null : new Node<>(hash, key, value, null));
+                        }
+                        if (value != null) {
+                            this.addCount(tab);
+                        }
+                        return value;
+                    }
+                }
+            } else if (head instanceof ForwardingNode) {
+                tab = this.helpResize(tab, (ForwardingNode<V>) head);
+            } else {
+                boolean added = false;
+                V value;
+                synchronized (head) {
+                    if (tab.get(index) != head) {
+                        continue;
+                    }
+                    checkNotReserved(head);
+                    Node<V> previous = null;
+                    Node<V> node = head;
+                    while (node != null && !node.matches(hash, key)) {
+                        previous = node;
+                        node = node.next;
+                    }
+                    if (node != null) {
+                        value = remapper.apply(true, node.value);
+                        if (value != null) {
+                            node.value = value;
+                        } else {
+                            if (previous == null) {
+                                tab.set(index, node.next);
+                            } else {
+                                previous.next = node.next;
+                            }
+                            this.count.decrement();
+                        }
+                    } else {
+                        value = remapper.apply(false, null);
+                        if (value != null) {
+                            previous.next = new Node<>(hash, key, value, null);
+                            added = true;
+                        }
+                    }
+                }
+                if (added) {
+                    this.addCount(tab);
+                }
+                return value;
+            }
+        }
+    }
+
+    // Counts a new key, and starts a resize if the table is now too full
+    private void addCount(AtomicReferenceArray<Node<V>> tab) {
+        this.count.increment();
+        if (this.resize.get() == null && this.count.sum() > threshold(tab.length())
+                && tab.length() < MAX_CAPACITY && tab == this.table) {
+            Resize<V> newResize = new Resize<>(tab, new AtomicReferenceArray<>(2 * tab.length()));
+            if (this.resize.compareAndSet(null, newResize)) {
+                if (this.table == tab) {
+                    this.transfer(newResize);
+                } else {
+                    // A resize of 'tab' finished after we checked, so this
+                    // one would resize a stale table
+                    this.resize.set(null);
+                }
+            }
+        }
+    }
+
+    // Helps with the resize that moved a bin of 'tab' (if it is still going),
+    // then returns the table that bin moved to
+    private AtomicReferenceArray<Node<V>> helpResize(AtomicReferenceArray<Node<V>> tab,
+                                                    ForwardingNode<V> forward) {
+        Resize<V> current = this.resize.get();
+        if (current != null && current.from == tab) {
+            this.transfer(current);
+        }
+        return forward.nextTable;
+    }
+
+    // Claims strides of bins and moves them until every bin has been claimed.
+    // Whoever moves the last stride installs the new table.
+    private void transfer(Resize<V> job) {
+        while (true) {
+            int end = job.nextClaim.get();
+            if (end <= 0) {
+                return;
+            }
+            int start = Math.max(end - TRANSFER_STRIDE, 0);
+            if (job.nextClaim.compareAndSet(end, start)) {
+                for (int index = end - 1; index >= start; index--) {
+                    this.moveBin(job, index);
+                }
+                if (job.binsLeft.addAndGet(start - end) == 0) {
+                    this.table = job.to;
+                    this.resize.set(null);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Copies bin 'index' of the old table into bins 'index' and 'index + n' of
+    // the new one, then leaves a forwarding node behind. The old nodes are not
+    // changed, so readers still walking them are unaffected.
+    private void moveBin(Resize<V> job, int index) {
+        int oldLength = job.from.length();
+        while (true) {
+            Node<V> head = job.from.get(index);
+            if (head == null) {
+                if (job.from.compareAndSet(index, null, job.forward)) {
+                    return;
+                }
+            } else {
+                synchronized (head) {
+                    if (job.from.get(index) == head) {
+                        Node<V> low = null;
+                        Node<V> high = null;
+                        for (Node<V> node = head; node != null; node = node.next) {
+                            if (indexFor(node.hash, 2 * oldLength) == index) {
+                                low = new Node<>(node.hash, node.key, node.value, low);
+                            } else {
+                                high = new Node<>(node.hash, node.key, node.value, high);
+                            }
+                        }
+                        job.to.set(index, low);
+                        job.to.set(index + oldLength, high);
+                        job.from.set(index, job.forward);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int threshold(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    private static int indexFor(int hash, int tableLength) {
+        return HashStrategy.MIXED.indexFor(hash, tableLength);
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    // A placeholder (see computeValue) can only still be the head once we hold
+    // its lock if the thread holding it is us, from inside a remapping function
+    private static void checkNotReserved(Node<?> head) {
+        if (head.key == null) {
+            throw new IllegalStateException("a mapping function cannot modify the dictionary");
+        }
+    }
+
+    private interface Remapper<V> {
+        V apply(boolean present, V old);
+    }
+
+    private static class Node<V> {
+        public final int hash;
+        // Null only in placeholders and forwarding nodes
+        public final Object key;
+        public volatile V value;
+        public volatile Node<V> next;
+
+        public Node(int hash, Object key, V value, Node<V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        public boolean matches(int otherHash, Object otherKey) {
+            return this.hash == otherHash && this.key != null && otherKey.equals(this.key);
+        }
+    }
+
+    private static class ForwardingNode<V> extends Node<V> {
+        public final AtomicReferenceArray<Node<V>> nextTable;
+
+        public ForwardingNode(AtomicReferenceArray<Node<V>> nextTable) {
+            super(0, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    private static class Resize<V> {
+        public final AtomicReferenceArray<Node<V>> from;
+        public final AtomicReferenceArray<Node<V>> to;
+        public final ForwardingNode<V> forward;
+        // Bins [0, nextClaim) of 'from' have not been claimed by any thread yet
+        public final AtomicInteger nextClaim;
+        public final AtomicInteger binsLeft;
+
+        public Resize(AtomicReferenceArray<Node<V>> from, AtomicReferenceArray<Node<V>> to) {
+            this.from = from;
+            this.to = to;
+            this.forward = new ForwardingNode<>(to);
+            this.nextClaim = new AtomicInteger(from.length());
+            this.binsLeft = new AtomicInteger(from.length());
+        }
+    }
+
+    /**
+     * Walks the bins of the table as it was when the iterator was created.
+     * When a bin has moved, it walks the two bins of the next table that the
+     * bin was split into instead (and so on, if those moved as well).
+     */
+    private static class ConcurrentIterator<K, V> implements Iterator<KVPair<K, V>> {
+        // Each table is at least twice as big as the one before, so there can
+        // never be more than about 30 pending bins
+        private static final int MAX_PENDING = 64;
+
+        private AtomicReferenceArray<Node<V>> baseTable;
+        private int baseIndex;
+        // A stack of bins in later tables that still need to be walked
+        private AtomicReferenceArray<Node<V>>[] pendingTables;
+        private int[] pendingIndices;
+        private int numPending;
+        // Invariant: the next node to return, or null if there are no more
+        private Node<V> next;
+
+        @SuppressWarnings("unchecked")
+        public ConcurrentIterator(AtomicReferenceArray<Node<V>> baseTable) {
+            this.baseTable = baseTable;
+            this.baseIndex = 0;
+            this.pendingTables = (AtomicReferenceArray<Node<V>>[]) new AtomicReferenceArray[MAX_PENDING];
+            this.pendingIndices = new int[MAX_PENDING];
+            this.numPending = 0;
+            this.next = null;
+            this.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public KVPair<K, V> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            Node<V> node = this.next;
+            this.advance();
+            K key = node.key == NULL_KEY ? null : (K) node.key;
+            return new KVPair<>(key, node.value);
+        }
+
+        private void advance() {
+            Node<V> node = this.next == null ? null : this.next.next;
+            while (node == null) {
+                AtomicReferenceArray<Node<V>> tab;
+                int index;
+                if (this.numPending > 0) {
+                    this.numPending--;
+                    tab = this.pendingTables[this.numPending];
+                    index = this.pendingIndices[this.numPending];
+                } else if (this.baseIndex < this.baseTable.length()) {
+                    tab = this.baseTable;
+                    index = this.baseIndex;
+                    this.baseIndex++;
+                } else {
+                    break;
+                }
+
+                Node<V> head = tab.get(index);
+                if (head instanceof ForwardingNode) {
+                    AtomicReferenceArray<Node<V>> nextTable = ((ForwardingNode<V>) head).nextTable;
+                    this.push(nextTable, index + tab.length());
+                    this.push(nextTable, index);
+                } else if (head != null && head.key != null) {
+                    node = head;
+                }
+            }
+            this.next = node;
+        }
+
+        private void push(AtomicReferenceArray<Node<V>> tab, int index) {
+            this.pendingTables[this.numPending] = tab;
+            this.pendingIndices[this.numPending] = index;
+            this.numPending++;
+        }
+    }
+}
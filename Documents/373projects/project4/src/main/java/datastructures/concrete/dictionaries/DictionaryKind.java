@@ -0,0 +1,35 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.interfaces.IDictionary;
+
+/**
+ * Selects which hash dictionary implementation a data structure uses internally.
+ */
+public enum DictionaryKind {
+    /**
+     * ChainedHashDictionary: each table slot holds a small dictionary of the
+     * keys that hash there.
+     */
+    CHAINED,
+
+    /**
+     * OpenAddressingDictionary: keys and values sit directly in two arrays,
+     * with linear probing. Faster, and uses much less memory per entry.
+     */
+    OPEN_ADDRESSING;
+
+    /**
+     * Returns a new, empty dictionary of this kind, sized to hold
+     * 'expectedSize' keys without growing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public <K, V> IDictionary<K, V> newDictionary(int expectedSize) {
+        switch (this) {
+            case OPEN_ADDRESSING:
+                return new OpenAddressingDictionary<>(expectedSize);
+            default:
+                return new ChainedHashDictionary<>(expectedSize);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package datastructures.concrete.dictionaries;
+
+/**
+ * Decides how ChainedHashDictionary turns a hash code into a table index, and
+ * which table sizes it grows through.
+ */
+public enum HashStrategy {
+    /**
+     * The original scheme: the hash code modulo the table size, with table
+     * sizes that follow the Thâbit numbers (11, 23, 47, ...). Needs an integer
+     * division per lookup, and uses the hash code exactly as given.
+     */
+    MODULO {
+        @Override
+        int indexFor(int hashCode, int tableSize) {
+            // Same as Math.abs(hashCode) % tableSize, except that it is still
+            // a valid index when hashCode is Integer.MIN_VALUE
+            return Math.abs(hashCode % tableSize);
+        }
+
+        @Override
+        int tableSize(int step) {
+            return THABIT[step];
+        }
+
+        @Override
+        int maxStep() {
+            return THABIT.length - 1;
+        }
+    },
+
+    /**
+     * Scrambles the hash code with the MurmurHash3 finalizer, then masks off
+     * the low bits of the result. Table sizes are powers of two (16, 32,
+     * 64, ...), so no division is needed, and the scrambling spreads out hash
+     * codes that only differ in their high bits, such as those of java.awt.Point.
+     */
+    MIXED {
+        @Override
+        int indexFor(int hashCode, int tableSize) {
+            return mix(hashCode) & (tableSize - 1);
+        }
+
+        @Override
+        int tableSize(int step) {
+            return 1 << (step + 1);
+        }
+
+        @Override
+        int maxStep() {
+            return 29;
+        }
+    };
+
+    // See https://en.wikipedia.org/wiki/Thabit_number & https://oeis.org/A055010
+    // more information on Thâbit ibn Kurrah Numbers that follow 3*2^(n - 1) - 1
+    // for n>0. Any larger Thabit number exceeds Java's 2^32 integer limit.
+    private static final int[] THABIT = {0, 2, 5, 11, 23, 47, 95, 191, 383, 767,
+                                            1535, 3071, 6143, 12287, 24575, 49151,
+                                            98303, 196607, 393215, 786431, 1572863,
+                                            3145727, 6291455, 12582911, 25165823,
+                                            50331647, 100663295, 201326591,
+                                            402653183, 805306367, 1610612735};
+
+    /**
+     * Returns the index in [0, tableSize) of the bucket for the given hash
+     * code, where tableSize is one of this strategy's table sizes.
+     */
+    abstract int indexFor(int hashCode, int tableSize);
+
+    /**
+     * Returns the table size after 'step' resizes' worth of growth, for
+     * 0 <= step <= maxStep(). Each size is about twice the one before.
+     */
+    abstract int tableSize(int step);
+
+    /**
+     * Returns the largest step tableSize(...) accepts.
+     */
+    abstract int maxStep();
+
+    // The 32-bit finalizer ("fmix32") of MurmurHash3: every input bit affects
+    // every output bit, and distinct inputs always give distinct outputs.
+    private static int mix(int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,162 @@
+package datastructures.concrete.dictionaries;
+
+/**
+ * A hash dictionary from ints to objects, with the keys stored unboxed in an
+ * int[] alongside the values.
+ *
+ * It is laid out like OpenAddressingDictionary, and probes its table with the
+ * same LinearProbing helpers. An empty slot is one whose value is null,
+ * so this dictionary cannot store null values. In return, lookups report a
+ * missing key by returning null rather than by throwing.
+ */
+public class IntObjectDictionary<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    // values[i] == null means slot i is empty
+    private V[] values;
+    private int size;
+    // A key's home slot is the scrambled key shifted right by this much
+    private int shift;
+
+    public IntObjectDictionary() {
+        this(0);
+    }
+
+    /**
+     * Creates a dictionary whose table is already big enough to hold
+     * 'expectedSize' keys without growing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public IntObjectDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        this.allocate(LinearProbing.capacityFor(DEFAULT_CAPACITY, expectedSize));
+        this.size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.shift = LinearProbing.shiftFor(capacity);
+    }
+
+    /**
+     * Returns the value for the given key, or null if the key is not present.
+     */
+    public V get(int key) {
+        return this.values[this.find(key)];
+    }
+
+    /**
+     * Returns 'true' if the dictionary contains the given key and 'false' otherwise.
+     */
+    public boolean containsKey(int key) {
+        return this.values[this.find(key)] != null;
+    }
+
+    /**
+     * Gives the key the given value, adding the key if needed. Returns the
+     * value the key had before, or null if it was just added.
+     *
+     * @throws IllegalArgumentException  if value is null
+     */
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value cannot be null");
+        }
+        int slot = this.find(key);
+        V old = this.values[slot];
+        if (old == null && this.size + 1 > this.values.length * LinearProbing.MAX_LOAD) {
+            this.resize(2 * this.values.length);
+            slot = this.find(key);
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (old == null) {
+            this.size++;
+        }
+        return old;
+    }
+
+    /**
+     * Removes the given key. Returns the value it had, or null if it was not
+     * present.
+     */
+    public V remove(int key) {
+        int slot = this.find(key);
+        V old = this.values[slot];
+        if (old != null) {
+            this.deleteSlot(slot);
+            this.size--;
+        }
+        return old;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in this dictionary.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns 'true' if this dictionary is empty and 'false' otherwise.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Calls 'action.accept(key, value)' once for every key-value pair in this
+     * dictionary. The dictionary must not be modified until it returns.
+     */
+    public void forEach(IntObjectConsumer<? super V> action) {
+        for (int slot = 0; slot < this.values.length; slot++) {
+            if (this.values[slot] != null) {
+                action.accept(this.keys[slot], this.values[slot]);
+            }
+        }
+    }
+
+    /**
+     * The int-keyed counterpart of java.util.function.ObjIntConsumer.
+     */
+    @FunctionalInterface
+    public interface IntObjectConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    // Returns the slot holding the given key, or the empty slot where it would go
+    private int find(int key) {
+        return LinearProbing.find(this.keys, this.values, key, this.shift);
+    }
+
+    // Empties the given slot, shifting back any later keys that need it
+    private void deleteSlot(int gap) {
+        int slot = LinearProbing.nextToMove(this.keys, this.values, gap, this.shift);
+        while (slot != -1) {
+            this.keys[gap] = this.keys[slot];
+            this.values[gap] = this.values[slot];
+            gap = slot;
+            slot = LinearProbing.nextToMove(this.keys, this.values, gap, this.shift);
+        }
+        this.values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = this.keys;
+        V[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = LinearProbing.emptySlot(this.values, oldKeys[i], this.shift);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
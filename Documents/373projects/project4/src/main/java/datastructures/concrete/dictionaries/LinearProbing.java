@@ -0,0 +1,145 @@
+package datastructures.concrete.dictionaries;
+
+/**
+ * The probing logic shared by OpenAddressingDictionary, ObjectIntDictionary
+ * and IntObjectDictionary. Each of them keeps its keys and values in parallel
+ * arrays, in a table whose length is a power of two, and only moves the
+ * values around itself.
+ *
+ * Invariants each table keeps:
+ *
+ * - The table is never more than MAX_LOAD full, so every probe sequence ends
+ *   at an empty slot.
+ * - A key lives either in its home slot, or in some later slot (wrapping
+ *   around) with no empty slot between the two. Deleting restores this by
+ *   shifting later keys back (see nextToMove) instead of leaving tombstones.
+ *
+ * Tables with object keys mark an empty slot with a null key. IntObjectDictionary
+ * cannot do that with an int, so it marks an empty slot with a null value, and
+ * the int-keyed methods below take the values array to tell which slots are full.
+ */
+final class LinearProbing {
+    // A table grows once it would be more than this full
+    static final double MAX_LOAD = 0.75;
+    // 2^32 divided by the golden ratio, used to scramble hash codes
+    private static final int GOLDEN = 0x9E3779B9;
+
+    private LinearProbing() {
+    }
+
+    /**
+     * Returns the smallest power-of-two multiple of 'capacity' that holds
+     * 'numKeys' keys.
+     */
+    static int capacityFor(int capacity, int numKeys) {
+        int result = capacity;
+        while (result * MAX_LOAD < numKeys) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Returns how far to shift a scrambled hash code right to get a slot in a
+     * table of the given power-of-two length.
+     */
+    static int shiftFor(int capacity) {
+        return Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    /**
+     * Scrambles the hash code so that keys whose hash codes differ only in their
+     * high bits (or form an arithmetic sequence) still land in different slots,
+     * then keeps the top bits as the home slot.
+     */
+    static int homeSlot(int hashCode, int shift) {
+        return (hashCode * GOLDEN) >>> shift;
+    }
+
+    /**
+     * Returns the slot holding the given non-null key, or the empty slot where
+     * it would go.
+     */
+    static int find(Object[] keys, Object key, int shift) {
+        int mask = keys.length - 1;
+        int slot = homeSlot(key.hashCode(), shift);
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot holding the given key, or the empty slot where it would go.
+     */
+    static int find(int[] keys, Object[] values, int key, int shift) {
+        int mask = values.length - 1;
+        int slot = homeSlot(key, shift);
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the empty slot where a key that is known to be absent would go.
+     * Used to refill a table after it grows, where no key needs comparing.
+     */
+    static int emptySlot(Object[] keys, Object key, int shift) {
+        int mask = keys.length - 1;
+        int slot = homeSlot(key.hashCode(), shift);
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Same as above, for IntObjectDictionary.
+     */
+    static int emptySlot(Object[] values, int key, int shift) {
+        int mask = values.length - 1;
+        int slot = homeSlot(key, shift);
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the first slot after the gap whose key must move back into the
+     * gap to stay findable, or -1 if the run of full slots ends first.
+     *
+     * To delete a slot, call this with the slot as the gap. While the result
+     * is not -1, move that slot's key and value into the gap and call this
+     * again with that slot as the new gap. Then empty the last gap.
+     */
+    static int nextToMove(Object[] keys, int gap, int shift) {
+        int mask = keys.length - 1;
+        for (int slot = (gap + 1) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (canMoveBack(homeSlot(keys[slot].hashCode(), shift), slot, gap, mask)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same as above, for IntObjectDictionary.
+     */
+    static int nextToMove(int[] keys, Object[] values, int gap, int shift) {
+        int mask = values.length - 1;
+        for (int slot = (gap + 1) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (canMoveBack(homeSlot(keys[slot], shift), slot, gap, mask)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // The key in 'slot' may move into the gap unless its home lies strictly
+    // after the gap and at or before its current slot (cyclically)
+    private static boolean canMoveBack(int home, int slot, int gap, int mask) {
+        return ((slot - home) & mask) >= ((slot - gap) & mask);
+    }
+}
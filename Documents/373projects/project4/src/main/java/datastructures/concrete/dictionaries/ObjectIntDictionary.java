@@ -0,0 +1,236 @@
+package datastructures.concrete.dictionaries;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A hash dictionary from objects to ints, with the values stored unboxed in
+ * an int[] alongside the keys.
+ *
+ * It is laid out like OpenAddressingDictionary, and probes its table with the
+ * same LinearProbing helpers. It does not implement IDictionary, since
+ * that would box every value. Instead, a missing key is reported by
+ * returning the dictionary's missing value rather than by throwing. The
+ * missing value is chosen when the dictionary is created, and defaults to -1.
+ * That default suits maps to ids or array positions.
+ */
+public class ObjectIntDictionary<K> {
+    /**
+     * The missing value used by the constructors that don't take one.
+     */
+    public static final int DEFAULT_MISSING_VALUE = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private K[] keys;
+    private int[] values;
+    // The number of keys in the table, not counting the null key
+    private int tableKeys;
+    // A key's home slot is its scrambled hash code shifted right by this much
+    private int shift;
+    private final int missingValue;
+
+    private boolean hasNullKey;
+    private int nullValue;
+
+    public ObjectIntDictionary() {
+        this(0, DEFAULT_MISSING_VALUE);
+    }
+
+    /**
+     * Creates a dictionary whose table is already big enough to hold
+     * 'expectedSize' keys without growing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ObjectIntDictionary(int expectedSize) {
+        this(expectedSize, DEFAULT_MISSING_VALUE);
+    }
+
+    /**
+     * Creates a dictionary sized for 'expectedSize' keys, whose lookups return
+     * 'missingValue' for keys that are not present.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public ObjectIntDictionary(int expectedSize, int missingValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        this.allocate(LinearProbing.capacityFor(DEFAULT_CAPACITY, expectedSize));
+        this.tableKeys = 0;
+        this.missingValue = missingValue;
+        this.hasNullKey = false;
+        this.nullValue = missingValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = (K[]) new Object[capacity];
+        this.values = new int[capacity];
+        this.shift = LinearProbing.shiftFor(capacity);
+    }
+
+    /**
+     * Returns the value this dictionary reports for keys that are not present.
+     */
+    public int missingValue() {
+        return this.missingValue;
+    }
+
+    /**
+     * Returns the value for the given key, or the missing value if the key
+     * is not present.
+     */
+    public int get(K key) {
+        if (key == null) {
+            return this.nullValue;
+        }
+        int slot = this.find(key);
+        return this.keys[slot] == null ? this.missingValue : this.values[slot];
+    }
+
+    /**
+     * Returns 'true' if the dictionary contains the given key and 'false' otherwise.
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            return this.hasNullKey;
+        }
+        return this.keys[this.find(key)] != null;
+    }
+
+    /**
+     * Gives the key the given value, adding the key if needed. Returns the
+     * value the key had before, or the missing value if it was just added.
+     */
+    public int put(K key, int value) {
+        if (key == null) {
+            int old = this.nullValue;
+            this.hasNullKey = true;
+            this.nullValue = value;
+            return old;
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] == null) {
+            this.insertAt(slot, key, value);
+            return this.missingValue;
+        }
+        int old = this.values[slot];
+        this.values[slot] = value;
+        return old;
+    }
+
+    /**
+     * Adds the key with the given value only if it is not already present.
+     * Returns the value the key already had, or the missing value if it was
+     * just added.
+     */
+    public int putIfAbsent(K key, int value) {
+        if (key == null) {
+            if (this.hasNullKey) {
+                return this.nullValue;
+            }
+            this.hasNullKey = true;
+            this.nullValue = value;
+            return this.missingValue;
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] != null) {
+            return this.values[slot];
+        }
+        this.insertAt(slot, key, value);
+        return this.missingValue;
+    }
+
+    /**
+     * Removes the given key. Returns the value it had, or the missing value
+     * if it was not present.
+     */
+    public int remove(K key) {
+        if (key == null) {
+            int old = this.nullValue;
+            this.hasNullKey = false;
+            this.nullValue = this.missingValue;
+            return old;
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] == null) {
+            return this.missingValue;
+        }
+        int old = this.values[slot];
+        this.deleteSlot(slot);
+        this.tableKeys--;
+        return old;
+    }
+
+    /**
+     * Returns the number of key-value pairs stored in this dictionary.
+     */
+    public int size() {
+        return this.hasNullKey ? this.tableKeys + 1 : this.tableKeys;
+    }
+
+    /**
+     * Returns 'true' if this dictionary is empty and 'false' otherwise.
+     */
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    /**
+     * Calls 'action.accept(key, value)' once for every key-value pair in this
+     * dictionary. The dictionary must not be modified until it returns.
+     */
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.keys[slot] != null) {
+                action.accept(this.keys[slot], this.values[slot]);
+            }
+        }
+        if (this.hasNullKey) {
+            action.accept(null, this.nullValue);
+        }
+    }
+
+    // Adds a key that is not in the table to the empty slot find(key) returned,
+    // growing the table first if it would become too full
+    private void insertAt(int slot, K key, int value) {
+        if (this.tableKeys + 1 > this.keys.length * LinearProbing.MAX_LOAD) {
+            this.resize(2 * this.keys.length);
+            slot = this.find(key);
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.tableKeys++;
+    }
+
+    // Returns the slot holding the given key, or the empty slot where it would go
+    private int find(K key) {
+        return LinearProbing.find(this.keys, key, this.shift);
+    }
+
+    // Empties the given slot, shifting back any later keys that need it
+    private void deleteSlot(int gap) {
+        int slot = LinearProbing.nextToMove(this.keys, gap, this.shift);
+        while (slot != -1) {
+            this.keys[gap] = this.keys[slot];
+            this.values[gap] = this.values[slot];
+            gap = slot;
+            slot = LinearProbing.nextToMove(this.keys, gap, this.shift);
+        }
+        this.keys[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        K[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = LinearProbing.emptySlot(this.keys, oldKeys[i], this.shift);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.interfaces.IDictionary;
+import misc.exceptions.NoSuchKeyException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A hash dictionary that stores its keys and values directly in two parallel
+ * arrays, using linear probing to resolve collisions.
+ *
+ * Compared to ChainedHashDictionary, a lookup touches one or two array slots
+ * instead of a bucket dictionary and then a pair object, and an entry costs
+ * two array slots instead of a pair object plus its share of a bucket.
+ *
+ * The probing itself lives in LinearProbing, which ObjectIntDictionary and
+ * IntObjectDictionary share; see there for the table's invariants. The null
+ * key cannot be stored in the table (an empty slot is null), so it is kept in
+ * its own pair of fields.
+ */
+public class OpenAddressingDictionary<K, V> implements IDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private K[] keys;
+    private V[] values;
+    // The number of keys in the table, not counting the null key
+    private int tableKeys;
+    // A key's home slot is its scrambled hash code shifted right by this much
+    private int shift;
+
+    private boolean hasNullKey;
+    private V nullValue;
+
+    public OpenAddressingDictionary() {
+        this(0);
+    }
+
+    /**
+     * Creates a dictionary whose table is already big enough to hold
+     * 'expectedSize' keys without growing.
+     *
+     * @throws IllegalArgumentException  if expectedSize < 0
+     */
+    public OpenAddressingDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize cannot be negative");
+        }
+        this.allocate(LinearProbing.capacityFor(DEFAULT_CAPACITY, expectedSize));
+        this.tableKeys = 0;
+        this.hasNullKey = false;
+        this.nullValue = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        this.keys = (K[]) new Object[capacity];
+        this.values = (V[]) new Object[capacity];
+        this.shift = LinearProbing.shiftFor(capacity);
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            if (!this.hasNullKey) {
+                throw new NoSuchKeyException();
+            }
+            return this.nullValue;
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] == null) {
+            throw new NoSuchKeyException();
+        }
+        return this.values[slot];
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null) {
+            return this.hasNullKey ? this.nullValue : defaultValue;
+        }
+        int slot = this.find(key);
+        return this.keys[slot] == null ? defaultValue : this.values[slot];
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            this.hasNullKey = true;
+            this.nullValue = value;
+        } else {
+            int slot = this.find(key);
+            if (this.keys[slot] == null) {
+                this.insertAt(slot, key, value);
+            } else {
+                this.values[slot] = value;
+            }
+        }
+    }
+
+    // Grows the table once so that all of 'other' fits, so no put below resizes
+    @Override
+    public void putAll(IDictionary<K, V> other) {
+        int capacity = LinearProbing.capacityFor(this.keys.length, this.tableKeys + other.size());
+        if (capacity != this.keys.length) {
+            this.resize(capacity);
+        }
+        other.forEach(this::put);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        if (key == null) {
+            V old = this.hasNullKey ? this.nullValue : null;
+            if (!this.hasNullKey) {
+                this.storeNullKey(value);
+            }
+            return old;
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] != null) {
+            return this.values[slot];
+        }
+        this.insertAt(slot, key, value);
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null) {
+            if (this.hasNullKey) {
+                return this.nullValue;
+            }
+            return this.storeNullKey(mappingFunction.apply(null));
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] != null) {
+            return this.values[slot];
+        }
+        return this.store(slot, key, mappingFunction.apply(key));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null) {
+            return this.storeNullKey(remappingFunction.apply(null, this.hasNullKey ? this.nullValue : null));
+        }
+        int slot = this.find(key);
+        V old = this.keys[slot] == null ? null : this.values[slot];
+        return this.store(slot, key, remappingFunction.apply(key, old));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (key == null) {
+            return this.storeNullKey(this.hasNullKey ? remappingFunction.apply(this.nullValue, value) : value);
+        }
+        int slot = this.find(key);
+        V merged = this.keys[slot] == null ? value : remappingFunction.apply(this.values[slot], value);
+        return this.store(slot, key, merged);
+    }
+
+    // Gives the key the value, where 'slot' is where find(key) says the key is
+    // (or would go). A null value removes the key instead. Returns the value.
+    private V store(int slot, K key, V value) {
+        if (this.keys[slot] == null) {
+            if (value != null) {
+                this.insertAt(slot, key, value);
+            }
+        } else if (value != null) {
+            this.values[slot] = value;
+        } else {
+            this.deleteSlot(slot);
+            this.tableKeys--;
+        }
+        return value;
+    }
+
+    // Same as store, for the null key
+    private V storeNullKey(V value) {
+        this.hasNullKey = value != null;
+        this.nullValue = value;
+        return value;
+    }
+
+    // Adds a key that is not in the table to the empty slot find(key) returned,
+    // growing the table first if it would become too full
+    private void insertAt(int slot, K key, V value) {
+        if (this.tableKeys + 1 > this.keys.length * LinearProbing.MAX_LOAD) {
+            this.resize(2 * this.keys.length);
+            slot = this.find(key);
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.tableKeys++;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            if (!this.hasNullKey) {
+                throw new NoSuchKeyException();
+            }
+            V value = this.nullValue;
+            this.hasNullKey = false;
+            this.nullValue = null;
+            return value;
+        }
+        int slot = this.find(key);
+        if (this.keys[slot] == null) {
+            throw new NoSuchKeyException();
+        }
+        V value = this.values[slot];
+        this.deleteSlot(slot);
+        this.tableKeys--;
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            return this.hasNullKey;
+        }
+        return this.keys[this.find(key)] != null;
+    }
+
+    @Override
+    public int size() {
+        return this.hasNullKey ? this.tableKeys + 1 : this.tableKeys;
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new OpenAddressingIterator<>(this.keys, this.values, this.hasNullKey, this.nullValue);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.keys[slot] != null) {
+                action.accept(this.keys[slot], this.values[slot]);
+            }
+        }
+        if (this.hasNullKey) {
+            action.accept(null, this.nullValue);
+        }
+    }
+
+    @Override
+    public Cursor<K, V> cursor() {
+        return new OpenAddressingCursor<>(this.keys, this.values, this.hasNullKey, this.nullValue);
+    }
+
+    // Returns the slot holding the given key, or the empty slot where it would go
+    private int find(K key) {
+        return LinearProbing.find(this.keys, key, this.shift);
+    }
+
+    // Empties the given slot, shifting back any later keys that need it
+    private void deleteSlot(int gap) {
+        int slot = LinearProbing.nextToMove(this.keys, gap, this.shift);
+        while (slot != -1) {
+            this.keys[gap] = this.keys[slot];
+            this.values[gap] = this.values[slot];
+            gap = slot;
+            slot = LinearProbing.nextToMove(this.keys, gap, this.shift);
+        }
+        this.keys[gap] = null;
+        this.values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        K[] oldKeys = this.keys;
+        V[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = LinearProbing.emptySlot(this.keys, oldKeys[i], this.shift);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static class OpenAddressingCursor<K, V> implements Cursor<K, V> {
+        private K[] keys;
+        private V[] values;
+        private boolean hasNullKey;
+        private V nullValue;
+        // Invariant: the current slot, where keys.length means the null key and
+        // anything past that means the cursor has finished
+        private int slot;
+
+        public OpenAddressingCursor(K[] keys, V[] values, boolean hasNullKey, V nullValue) {
+            this.keys = keys;
+            this.values = values;
+            this.hasNullKey = hasNullKey;
+            this.nullValue = nullValue;
+            this.slot = -1;
+        }
+
+        @Override
+        public boolean advance() {
+            if (this.slot < this.keys.length) {
+                this.slot++;
+                while (this.slot < this.keys.length && this.keys[this.slot] == null) {
+                    this.slot++;
+                }
+                if (this.slot == this.keys.length && !this.hasNullKey) {
+                    this.slot++;
+                }
+            } else {
+                this.slot = this.keys.length + 1;
+            }
+            return this.slot <= this.keys.length;
+        }
+
+        @Override
+        public K key() {
+            this.checkCurrent();
+            return this.slot < this.keys.length ? this.keys[this.slot] : null;
+        }
+
+        @Override
+        public V value() {
+            this.checkCurrent();
+            return this.slot < this.keys.length ? this.values[this.slot] : this.nullValue;
+        }
+
+        private void checkCurrent() {
+            if (this.slot < 0 || this.slot > this.keys.length) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    private static class OpenAddressingIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private K[] keys;
+        private V[] values;
+        // Invariant: 'slot' is the next occupied slot, or keys.length if there is none
+        private int slot;
+        private boolean nullKeyLeft;
+        private V nullValue;
+
+        public OpenAddressingIterator(K[] keys, V[] values, boolean hasNullKey, V nullValue) {
+            this.keys = keys;
+            this.values = values;
+            this.nullKeyLeft = hasNullKey;
+            this.nullValue = nullValue;
+            this.slot = this.nextOccupied(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.slot < this.keys.length || this.nullKeyLeft;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (this.slot < this.keys.length) {
+                KVPair<K, V> pair = new KVPair<>(this.keys[this.slot], this.values[this.slot]);
+                this.slot = this.nextOccupied(this.slot + 1);
+                return pair;
+            } else if (this.nullKeyLeft) {
+                this.nullKeyLeft = false;
+                return new KVPair<>(null, this.nullValue);
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        private int nextOccupied(int from) {
+            int index = from;
+            while (index < this.keys.length && this.keys[index] == null) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
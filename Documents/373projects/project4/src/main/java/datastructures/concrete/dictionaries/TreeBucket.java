@@ -0,0 +1,359 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.interfaces.IDictionary;
+import misc.exceptions.NoSuchKeyException;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * The bucket ChainedHashDictionary switches to once an ArrayDictionary bucket
+ * gets too long (see ChainedHashDictionary.TREEIFY_THRESHOLD).
+ *
+ * The entries form an AVL tree ordered by hash code, so finding, adding and
+ * removing a key all take O(log n) time when hash codes differ. Keys with the
+ * same hash code are ordered by compareTo if they are Comparable instances of
+ * the same class, and a lookup tries the side compareTo points to first.
+ *
+ * That order is only a hint, though. A key's compareTo order may change while
+ * it is stored (a Wall compares by its distance, which can be changed with
+ * setDistance), so when the key is not on that side, the lookup searches the
+ * other side as well. A lookup among n keys that share a hash code therefore
+ * takes O(log n) time if the key is found where compareTo says, and up to
+ * O(n) time otherwise, including every miss.
+ *
+ * The entries are also kept in an array, in no particular order, so that
+ * ChainedHashDictionary can walk them by position.
+ */
+class TreeBucket<K, V> implements IDictionary<K, V> {
+    private Node<K, V> root;
+    // Every node in the tree, in nodes[0, size); each node knows its own index
+    private Node<K, V>[] nodes;
+    private int size;
+    // Stamped on each new node, so that no two nodes ever tie in the tree's order
+    private long nextSequence;
+
+    public TreeBucket(int capacity) {
+        this.root = null;
+        this.nodes = makeArrayOfNodes(Math.max(capacity, 1));
+        this.size = 0;
+        this.nextSequence = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] makeArrayOfNodes(int size) {
+        return (Node<K, V>[]) new Node[size];
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node = this.find(key);
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        return node.value;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        Node<K, V> node = this.find(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Node<K, V> node = this.find(key);
+        if (node != null) {
+            node.value = value;
+        } else {
+            this.insert(key, value);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Node<K, V> node = this.find(key);
+        if (node != null) {
+            return node.value;
+        }
+        this.insert(key, value);
+        return null;
+    }
+
+    @Override
+    public V remove(K key) {
+        Node<K, V> node = this.find(key);
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        this.root = delete(this.root, node);
+
+        // Fill the node's array slot with the last node
+        Node<K, V> last = this.nodes[this.size - 1];
+        this.nodes[node.index] = last;
+        last.index = node.index;
+        this.nodes[this.size - 1] = null;
+        this.size--;
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return this.find(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    private void insert(K key, V value) {
+        if (this.size == this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+        }
+        Node<K, V> node = new Node<>(hashOf(key), key, value, this.nextSequence, this.size);
+        this.nextSequence++;
+        this.nodes[this.size] = node;
+        this.size++;
+        this.root = insert(this.root, node);
+    }
+
+    // Returns the node holding the key, or null if there is none
+    private Node<K, V> find(K key) {
+        return find(this.root, hashOf(key), key);
+    }
+
+    private static <K, V> Node<K, V> find(Node<K, V> node, int hash, Object key) {
+        while (node != null) {
+            if (hash != node.hash) {
+                node = hash < node.hash ? node.left : node.right;
+            } else if (key == null ? node.key == null : key.equals(node.key)) {
+                return node;
+            } else {
+                // Search the side compareTo prefers here, and keep walking
+                // the other one in case the key's order has changed
+                boolean right = compareForLookup(key, node) > 0;
+                Node<K, V> found = find(right ? node.right : node.left, hash, key);
+                if (found != null) {
+                    return found;
+                }
+                node = right ? node.left : node.right;
+            }
+        }
+        return null;
+    }
+
+    // Orders a key against a node with the same hash code. Returns 0 when
+    // compareTo cannot order them.
+    @SuppressWarnings("unchecked")
+    private static int compareForLookup(Object key, Node<?, ?> node) {
+        if (key instanceof Comparable && node.key != null && key.getClass() == node.key.getClass()) {
+            return ((Comparable<Object>) key).compareTo(node.key);
+        }
+        return 0;
+    }
+
+    // The order of the tree: by hash code, then by class name, then by
+    // compareTo within a class, then by age. It never ties two different
+    // nodes, but stops being accurate once a stored key's compareTo order
+    // changes, which is why find and delete do not trust it.
+    @SuppressWarnings("unchecked")
+    private static int compareNodes(Node<?, ?> a, Node<?, ?> b) {
+        if (a.hash != b.hash) {
+            return a.hash < b.hash ? -1 : 1;
+        }
+        if (a.key == null || b.key == null) {
+            if (a.key != b.key) {
+                return a.key == null ? -1 : 1;
+            }
+        } else if (a.key.getClass() != b.key.getClass()) {
+            int compare = a.key.getClass().getName().compareTo(b.key.getClass().getName());
+            if (compare != 0) {
+                return compare;
+            }
+        } else if (a.key instanceof Comparable) {
+            int compare = ((Comparable<Object>) a.key).compareTo(b.key);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return Long.compare(a.sequence, b.sequence);
+    }
+
+    private static int hashOf(Object key) {
+        return key == null ? 0 : key.hashCode();
+    }
+
+    // Adds the node to the subtree and returns the subtree's new root
+    private static <K, V> Node<K, V> insert(Node<K, V> node, Node<K, V> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compareNodes(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    // Unlinks the given node from the subtree and returns the subtree's new root
+    private static <K, V> Node<K, V> delete(Node<K, V> node, Node<K, V> removed) {
+        if (node == removed) {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Put the node's successor in its place
+            Node<K, V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        boolean left;
+        if (removed.hash != node.hash) {
+            left = removed.hash < node.hash;
+        } else {
+            // As in find, check the side compareTo prefers first
+            boolean right = compareForLookup(removed.key, node) > 0;
+            boolean there = find(right ? node.right : node.left, removed.hash, removed.key) == removed;
+            left = right != there;
+        }
+        if (left) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        return rebalance(node);
+    }
+
+    private static <K, V> Node<K, V> deleteMin(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return rebalance(node);
+    }
+
+    // Restores the AVL property at the node, whose subtrees are balanced and
+    // differ in height by at most 2, and returns the subtree's new root
+    private static <K, V> Node<K, V> rebalance(Node<K, V> node) {
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        updateHeight(node);
+        return node;
+    }
+
+    private static <K, V> Node<K, V> rotateRight(Node<K, V> node) {
+        Node<K, V> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateHeight(node);
+        updateHeight(left);
+        return left;
+    }
+
+    private static <K, V> Node<K, V> rotateLeft(Node<K, V> node) {
+        Node<K, V> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateHeight(node);
+        updateHeight(right);
+        return right;
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(Node<?, ?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new TreeBucketIterator<>(this.nodes, this.size);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < this.size; i++) {
+            action.accept(this.nodes[i].key, this.nodes[i].value);
+        }
+    }
+
+    // Let ChainedHashDictionary walk its buckets without allocating
+    K keyAt(int index) {
+        return this.nodes[index].key;
+    }
+
+    V valueAt(int index) {
+        return this.nodes[index].value;
+    }
+
+    private static class Node<K, V> {
+        private final int hash;
+        private final K key;
+        private V value;
+        private final long sequence;
+        // This node's position in the nodes array
+        private int index;
+        private Node<K, V> left;
+        private Node<K, V> right;
+        private int height;
+
+        public Node(int hash, K key, V value, long sequence, int index) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.sequence = sequence;
+            this.index = index;
+            this.height = 1;
+        }
+    }
+
+    private static class TreeBucketIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private Node<K, V>[] nodes;
+        private int size;
+        private int nextIndex;
+
+        public TreeBucketIterator(Node<K, V>[] nodes, int size) {
+            this.nodes = nodes;
+            this.size = size;
+            this.nextIndex = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex < this.size;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = this.nodes[this.nextIndex];
+            this.nextIndex++;
+            return new KVPair<>(node.key, node.value);
+        }
+    }
+}
@@ -4,6 +4,10 @@ import datastructures.concrete.KVPair;
 import misc.exceptions.NoSuchKeyException;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Represents a data structure that contains a bunch of key-value mappings. Each key must be unique.
@@ -39,6 +43,96 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
      */
     public void put(K key, V value);
 
+    /**
+     * Adds the key-value pair only if the key is not already in the dictionary.
+     * Returns the value the key already had, or null if it was just added.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it so the key is only hashed and looked up once.
+     */
+    public default V putIfAbsent(K key, V value) {
+        if (this.containsKey(key)) {
+            return this.get(key);
+        } else {
+            this.put(key, value);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the value for the given key. If the key is not in the dictionary,
+     * first adds it with the value 'mappingFunction.apply(key)', unless that
+     * value is null, in which case nothing is added and null is returned.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it so the key is only hashed and looked up once.
+     */
+    public default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (this.containsKey(key)) {
+            return this.get(key);
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            this.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces the value for the given key with 'remappingFunction.apply(key, old)',
+     * where 'old' is the current value, or null if the key is not in the
+     * dictionary. If the new value is null, the key is removed instead (or
+     * simply not added). Returns the new value.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it so the key is only hashed and looked up once.
+     */
+    public default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        boolean present = this.containsKey(key);
+        V value = remappingFunction.apply(key, present ? this.get(key) : null);
+        if (value != null) {
+            this.put(key, value);
+        } else if (present) {
+            this.remove(key);
+        }
+        return value;
+    }
+
+    /**
+     * If the key is not in the dictionary, adds it with the given value.
+     * Otherwise, replaces its value with 'remappingFunction.apply(old, value)',
+     * removing the key if that is null. Returns the key's new value.
+     *
+     * For example, 'counts.merge(word, 1, Integer::sum)' counts words.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it so the key is only hashed and looked up once.
+     */
+    public default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (!this.containsKey(key)) {
+            this.put(key, value);
+            return value;
+        }
+        V merged = remappingFunction.apply(this.get(key), value);
+        if (merged != null) {
+            this.put(key, merged);
+        } else {
+            this.remove(key);
+        }
+        return merged;
+    }
+
+    /**
+     * Adds every key-value pair in 'other' to this dictionary, replacing the
+     * value of any key that is already here.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it to grow their table at most once, up front.
+     */
+    public default void putAll(IDictionary<K, V> other) {
+        other.forEach(this::put);
+    }
+
     /**
      * Remove the key-value pair corresponding to the given key from the dictionary.
      *
@@ -67,4 +161,91 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
      * Returns a list of all key-value pairs contained within this dict.
      */
     public Iterator<KVPair<K, V>> iterator();
+
+    /**
+     * Calls 'action.accept(key, value)' once for every key-value pair in this
+     * dictionary. The dictionary must not be modified until it returns.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it so that no KVPair is created for each entry.
+     */
+    public default void forEach(BiConsumer<? super K, ? super V> action) {
+        for (KVPair<K, V> pair : this) {
+            action.accept(pair.getKey(), pair.getValue());
+        }
+    }
+
+    /**
+     * Returns a cursor positioned before the first key-value pair in this
+     * dictionary. For example:
+     *
+     *     IDictionary.Cursor<String, Integer> cursor = dict.cursor();
+     *     while (cursor.advance()) {
+     *         total += cursor.value();
+     *     }
+     *
+     * Like an iterator, the cursor is no longer valid once the dictionary is
+     * modified.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       should override it so that no KVPair is created for each entry.
+     */
+    public default Cursor<K, V> cursor() {
+        Iterator<KVPair<K, V>> iter = this.iterator();
+        return new Cursor<K, V>() {
+            private KVPair<K, V> current = null;
+
+            @Override
+            public boolean advance() {
+                this.current = iter.hasNext() ? iter.next() : null;
+                return this.current != null;
+            }
+
+            @Override
+            public K key() {
+                return this.pair().getKey();
+            }
+
+            @Override
+            public V value() {
+                return this.pair().getValue();
+            }
+
+            private KVPair<K, V> pair() {
+                if (this.current == null) {
+                    throw new NoSuchElementException();
+                }
+                return this.current;
+            }
+        };
+    }
+
+    /**
+     * Walks over the key-value pairs of a dictionary one at a time, like an
+     * iterator, except that the same cursor object describes each pair in
+     * turn instead of a new KVPair being returned for each one.
+     */
+    public interface Cursor<K, V> {
+        /**
+         * Moves to the next key-value pair. Returns 'true' if there was one,
+         * and 'false' if the cursor has moved past the last pair.
+         */
+        public boolean advance();
+
+        /**
+         * Returns the key of the current pair.
+         *
+         * @throws NoSuchElementException  if advance() has not been called yet,
+         *                                 or has returned false
+         */
+        public K key();
+
+        /**
+         * Returns the value of the current pair.
+         *
+         * @throws NoSuchElementException  if advance() has not been called yet,
+         *                                 or has returned false
+         */
+        public V value();
+    }
 }
@@ -0,0 +1,60 @@
+package datastructures.interfaces;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a priority queue that keeps track of where each of its elements
+ * is stored, so that it can find, remove, or reprioritize any element without
+ * scanning the whole queue.
+ *
+ * Every element must be unique according to its equals and hashCode methods.
+ * An element's hashCode must not depend on its priority: two elements are
+ * considered to be "the same entry" if they are equal, even if they compare
+ * differently.
+ */
+public interface IIndexedPriorityQueue<T extends Comparable<T>> extends IPriorityQueue<T> {
+    /**
+     * Inserts the given item into the queue.
+     *
+     * @throws IllegalArgumentException  if the item is null
+     * @throws IllegalArgumentException  if an equal item is already in the queue
+     */
+    @Override
+    void insert(T item);
+
+    /**
+     * Finds the given item in the queue and removes it.
+     *
+     * @throws NoSuchElementException  if the given item does not exist
+     */
+    @Override
+    void remove(T item);
+
+    /**
+     * Returns 'true' if the queue contains an item equal to the given one,
+     * and 'false' otherwise.
+     */
+    boolean contains(T item);
+
+    /**
+     * Replaces the item in the queue that is equal to the given one with the
+     * given item, which must not be larger than the item it replaces.
+     *
+     * The item may be the same object as the one already in the queue, as long
+     * as its priority has only decreased since it was inserted.
+     *
+     * @throws IllegalArgumentException  if the item is null
+     * @throws IllegalArgumentException  if the new item is larger than the old one
+     * @throws NoSuchElementException    if the given item does not exist
+     */
+    void decreaseKey(T item);
+
+    /**
+     * Replaces the item in the queue that is equal to the given one with the
+     * given item, moving it up or down as needed.
+     *
+     * @throws IllegalArgumentException  if the item is null
+     * @throws NoSuchElementException    if the given item does not exist
+     */
+    void changePriority(T item);
+}
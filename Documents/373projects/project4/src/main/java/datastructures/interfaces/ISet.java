@@ -14,6 +14,94 @@ public interface ISet<T> extends Iterable<T> {
      */
     public void add(T item);
 
+    /**
+     * Adds every item in 'other' to this set.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       may override it to grow their table at most once, up front.
+     */
+    public default void addAll(ISet<T> other) {
+        for (T item : other) {
+            this.add(item);
+        }
+    }
+
+    /**
+     * Removes every item from this set that is not also in 'other'.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       may override it to pick a cheaper strategy based on the sizes of the
+     *       two sets.
+     */
+    @SuppressWarnings("unchecked")
+    public default void retainAll(ISet<T> other) {
+        // Collect the items in an array first, since the set can't change while
+        // it is being iterated over. (This must not call difference, since
+        // implementations often build that on top of retainAll.)
+        T[] toRemove = (T[]) new Object[this.size()];
+        int count = 0;
+        for (T item : this) {
+            if (!other.contains(item)) {
+                toRemove[count] = item;
+                count++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            this.remove(toRemove[i]);
+        }
+    }
+
+    /**
+     * Removes every item in 'other' from this set. Items of 'other' that are
+     * not in this set are ignored.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       may override it to pick a cheaper strategy based on the sizes of the
+     *       two sets.
+     */
+    @SuppressWarnings("unchecked")
+    public default void removeAll(ISet<T> other) {
+        if (other != this && other.size() <= this.size()) {
+            // Cheaper to walk the smaller set, and safe since only 'this' changes
+            for (T item : other) {
+                if (this.contains(item)) {
+                    this.remove(item);
+                }
+            }
+        } else {
+            // As in retainAll, collect the items first (and don't call intersect)
+            T[] toRemove = (T[]) new Object[this.size()];
+            int count = 0;
+            for (T item : this) {
+                if (other.contains(item)) {
+                    toRemove[count] = item;
+                    count++;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                this.remove(toRemove[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a new set holding every item in either this set or 'other'.
+     * Neither set is modified.
+     */
+    public ISet<T> union(ISet<T> other);
+
+    /**
+     * Returns a new set holding every item in both this set and 'other'.
+     * Neither set is modified.
+     */
+    public ISet<T> intersect(ISet<T> other);
+
+    /**
+     * Returns a new set holding every item in this set that is not in 'other'.
+     * Neither set is modified.
+     */
+    public ISet<T> difference(ISet<T> other);
+
     /**
      * Removes the given item from the set.
      *
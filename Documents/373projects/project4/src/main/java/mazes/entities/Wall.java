@@ -2,6 +2,9 @@ package mazes.entities;
 
 import misc.graphs.Edge;
 
+import java.awt.Point;
+import java.util.function.ToDoubleFunction;
+
 /**
  * Represents a wall between two rooms.
  *
@@ -15,6 +18,9 @@ public class Wall implements Edge<Room>, Comparable<Wall> {
     private Room room2;
     private LineSegment dividingLine;
     private double distance;
+    // hashCode() hashes four Points behind three objects, and walls are hashed
+    // constantly while mazes are built, so it is worked out once up front
+    private int hashCode;
 
     /**
      * Constructs a wall between the two given rooms.
@@ -27,6 +33,7 @@ public class Wall implements Edge<Room>, Comparable<Wall> {
         this.room2 = room2;
         this.dividingLine = dividingLine;
         this.distance = distance;
+        this.hashCode = computeHashCode();
     }
 
     /**
@@ -37,6 +44,22 @@ public class Wall implements Edge<Room>, Comparable<Wall> {
         this(room1, room2, dividingLine, room1.getCenter().distance(room2.getCenter()));
     }
 
+    /**
+     * Returns an A* heuristic for finding paths to the given room.
+     *
+     * The estimate for a room is the straight-line distance between its center
+     * and the target's center. By default, a wall's distance is the distance
+     * between the centers of the two rooms it divides, so no path of walls can be
+     * shorter than a straight line: the estimate never overestimates, and
+     * Graph.findShortestPathAStar(...) still returns a shortest path.
+     *
+     * Don't use this heuristic while walls have custom distances (see setDistance).
+     */
+    public static ToDoubleFunction<Room> euclideanHeuristic(Room target) {
+        Point targetCenter = target.getCenter();
+        return room -> room.getCenter().distance(targetCenter);
+    }
+
     /**
      * Returns a pointer to the first room.
      */
@@ -141,11 +164,20 @@ public class Wall implements Edge<Room>, Comparable<Wall> {
 
     @Override
     public int hashCode() {
-        int result;
-        result = room1.hashCode();
-        result = 31 * result + room2.hashCode();
-        result = 31 * result + dividingLine.hashCode();
-        return result;
+        return this.hashCode;
+    }
+
+    // Hashes the coordinates of the two room centers rather than calling
+    // Point.hashCode(), which folds x and y together with XOR so that many
+    // nearby grid points share a hash code. The dividing line is left out:
+    // equal walls always have equal rooms, and so equal hash codes.
+    private int computeHashCode() {
+        return hashPoint(room1.getCenter()) * 0x9E3779B1 + hashPoint(room2.getCenter());
+    }
+
+    // Distinct for any two points whose coordinates fit in 16 bits
+    private static int hashPoint(Point point) {
+        return (point.x << 16) ^ point.y;
     }
 
     @Override
@@ -64,7 +64,7 @@ public class GridGenerator extends BaseMazeGenerator {
     }
 
     private ISet<Room> extractRooms(Room[][] grid) {
-        ISet<Room> rooms = new ChainedHashSet<>();
+        ISet<Room> rooms = new ChainedHashSet<>(this.numColumns * this.numRows);
         for (int x = 0; x < this.numColumns; x++) {
             for (int y = 0; y < this.numRows; y++) {
                 rooms.add(grid[x][y]);
@@ -74,7 +74,9 @@ public class GridGenerator extends BaseMazeGenerator {
     }
 
     private ISet<Wall> extractWalls(Room[][] grid) {
-        ISet<Wall> walls = new ChainedHashSet<>();
+        // Every room has a wall to its left and one above it, except along the edges
+        int numWalls = (this.numColumns - 1) * this.numRows + this.numColumns * (this.numRows - 1);
+        ISet<Wall> walls = new ChainedHashSet<>(Math.max(numWalls, 0));
 
         for (int x = 0; x < this.numColumns; x++) {
             for (int y = 0; y < this.numRows; y++) {
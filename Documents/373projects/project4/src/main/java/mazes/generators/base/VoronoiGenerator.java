@@ -74,10 +74,10 @@ public class VoronoiGenerator extends BaseMazeGenerator {
         for (Room room : rooms) {
             Point vertex = room.getCenter();
             for (LineSegment seg : this.polygonToLineSegment(room.getPolygon())) {
-                if (!edgeToPoints.containsKey(seg)) {
-                    edgeToPoints.put(seg, vertex);
-                } else {
-                    Point otherVertex = edgeToPoints.get(seg);
+                // The first room to reach a segment claims it; the second one
+                // finds the first one's center and makes the wall
+                Point otherVertex = edgeToPoints.putIfAbsent(seg, vertex);
+                if (otherVertex != null) {
                     Wall wall = new Wall(pointsToSite.get(vertex), pointsToSite.get(otherVertex), seg);
                     if (seg.length() > this.minimumWallLength) {
                         walls.add(wall);
@@ -1,6 +1,7 @@
 package mazes.generators.maze;
 
 import datastructures.concrete.ChainedHashSet;
+import datastructures.concrete.dictionaries.DictionaryKind;
 import datastructures.interfaces.ISet;
 import mazes.entities.Maze;
 import mazes.entities.Room;
@@ -15,6 +16,23 @@ import java.util.Random;
  * See the spec for more details.
  */
 public class KruskalMazeCarver implements MazeCarver {
+    private Graph.MstAlgorithm algorithm;
+
+    public KruskalMazeCarver() {
+        this(Graph.MstAlgorithm.KRUSKAL);
+    }
+
+    /**
+     * Carves mazes using the given MST algorithm instead of Kruskal's.
+     *
+     * Every algorithm finds a minimum spanning tree of the same randomly weighted
+     * walls, so this only changes how fast the maze is carved, not what kind of
+     * maze comes out.
+     * Use Graph.MstAlgorithm.BORUVKA to spread the work across every core.
+     */
+    public KruskalMazeCarver(Graph.MstAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
 
     @Override
     public ISet<Wall> returnWallsToRemove(Maze maze) {
@@ -33,10 +51,14 @@ public class KruskalMazeCarver implements MazeCarver {
         for (Wall wall : walls) {
             wall.setDistance(rand.nextInt(Integer.MAX_VALUE));
         }
-        Graph<Room, Wall> graph = new Graph<>(rooms, walls);
-        ISet<Wall> mst = graph.findMinimumSpanningTree();
+        Graph<Room, Wall> graph = Graph.<Room, Wall>builder()
+                .dictionaryKind(DictionaryKind.OPEN_ADDRESSING)
+                .addVertices(rooms)
+                .addEdges(walls)
+                .build();
+        ISet<Wall> mst = graph.findMinimumSpanningTree(this.algorithm);
 
-        ISet<Wall> toRemove = new ChainedHashSet<>();
+        ISet<Wall> toRemove = new ChainedHashSet<>(DictionaryKind.OPEN_ADDRESSING);
         for (Wall wall : walls) {
             if (mst.contains(wall) && !noTouching.contains(wall)) {
                 toRemove.add(wall);
@@ -0,0 +1,88 @@
+package datastructures;
+
+import datastructures.concrete.ChainedHashSet;
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+
+import java.awt.Rectangle;
+
+/**
+ * Measures contains(...) on a ChainedHashSet of walls with and without a
+ * Bloom filter in front of it. Half the walls of a grid maze go in the set;
+ * the other half are looked up over and over, so every lookup is a miss. A
+ * round of lookups on walls that are in the set is timed too, since those pay
+ * for the filter without being turned away by it.
+ *
+ * This is not a test; run it by hand with
+ *
+ *     java datastructures.BloomFilterBenchmark [gridSize] [lookups] [falsePositiveRate]
+ *
+ * The defaults are a 700x700 grid (about a million walls), 10,000,000 lookups
+ * and a 1% false-positive rate.
+ */
+public class BloomFilterBenchmark {
+    public static void main(String[] args) {
+        int gridSize = args.length > 0 ? Integer.parseInt(args[0]) : 700;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        double falsePositiveRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.01;
+
+        Maze maze = new GridGenerator(gridSize, gridSize).generateBaseMaze(
+                new Rectangle(0, 0, 4 * gridSize, 4 * gridSize));
+        Wall[] walls = new Wall[maze.getWalls().size()];
+        int numWalls = 0;
+        for (Wall wall : maze.getWalls()) {
+            walls[numWalls] = wall;
+            numWalls++;
+        }
+        // Even indices go in the sets, odd indices are the misses
+        Wall[] present = new Wall[(numWalls + 1) / 2];
+        Wall[] absent = new Wall[numWalls / 2];
+        for (int i = 0; i < numWalls; i++) {
+            if (i % 2 == 0) {
+                present[i / 2] = walls[i];
+            } else {
+                absent[i / 2] = walls[i];
+            }
+        }
+
+        ISet<Wall> plain = new ChainedHashSet<>(present.length);
+        ISet<Wall> filtered = new ChainedHashSet<>(present.length, falsePositiveRate);
+        for (Wall wall : present) {
+            plain.add(wall);
+            filtered.add(wall);
+        }
+
+        System.out.printf("%d walls in each set, %d lookups, false-positive rate %s%n",
+                present.length, lookups, falsePositiveRate);
+        System.out.printf("%-10s %14s %14s%n", "set", "miss ns/op", "hit ns/op");
+        // Run each once to warm up, then report the second run
+        for (int run = 0; run < 2; run++) {
+            double plainMiss = measure(plain, absent, lookups, false);
+            double filteredMiss = measure(filtered, absent, lookups, false);
+            double plainHit = measure(plain, present, lookups, true);
+            double filteredHit = measure(filtered, present, lookups, true);
+            if (run == 1) {
+                System.out.printf("%-10s %14.1f %14.1f%n", "plain", plainMiss, plainHit);
+                System.out.printf("%-10s %14.1f %14.1f%n", "filtered", filteredMiss, filteredHit);
+            }
+        }
+    }
+
+    // Returns nanoseconds per lookup
+    private static double measure(ISet<Wall> set, Wall[] queries, int lookups, boolean expected) {
+        int wrong = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (set.contains(queries[i % queries.length]) != expected) {
+                wrong++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (wrong != 0) {
+            throw new IllegalStateException(wrong + " lookups gave the wrong answer");
+        }
+        return (double) elapsed / lookups;
+    }
+}
@@ -0,0 +1,90 @@
+package datastructures;
+
+import datastructures.concrete.ArrayDisjointSet;
+import datastructures.concrete.IdMappedDisjointSet;
+import datastructures.concrete.IntDisjointSet;
+import datastructures.interfaces.IDisjointSet;
+
+import java.util.Random;
+
+/**
+ * Measures random unions on IntDisjointSet, which works on ids directly,
+ * against IdMappedDisjointSet and ArrayDisjointSet, which first look each
+ * Integer item up in a hash table. Every item starts in a set of its own,
+ * and then the same random pairs are joined in each disjoint set. The pairs
+ * and the boxed items are made before the clock starts.
+ *
+ * The object-keyed sets throw on a union of two items that are already
+ * together, so they are asked findSet first, as Kruskal's algorithm would.
+ *
+ * This is not a test; run it by hand with
+ *
+ *     java datastructures.DisjointSetBenchmark [numItems] [numUnions]
+ *
+ * The defaults are 10,000,000 items and 10,000,000 unions, which needs a
+ * heap of a few gigabytes (-Xmx4g).
+ */
+public class DisjointSetBenchmark {
+    public static void main(String[] args) {
+        int numItems = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int numUnions = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+
+        Random rand = new Random(373);
+        int[] firsts = new int[numUnions];
+        int[] seconds = new int[numUnions];
+        for (int i = 0; i < numUnions; i++) {
+            firsts[i] = rand.nextInt(numItems);
+            seconds[i] = rand.nextInt(numItems);
+        }
+        Integer[] items = new Integer[numItems];
+        for (int i = 0; i < numItems; i++) {
+            items[i] = i;
+        }
+
+        System.out.printf("%d items, %d unions%n", numItems, numUnions);
+        System.out.printf("%-10s %12s %12s %14s %8s%n", "set", "makeSet ms", "union ms", "ns/union", "sets");
+        // Run each once to warm up, then report the second run
+        for (int run = 0; run < 2; run++) {
+            long start = System.nanoTime();
+            IntDisjointSet ids = new IntDisjointSet(numItems);
+            long made = System.nanoTime();
+            for (int i = 0; i < numUnions; i++) {
+                ids.union(firsts[i], seconds[i]);
+            }
+            long done = System.nanoTime();
+            if (run == 1) {
+                report("int", start, made, done, numUnions, ids.numSets());
+            }
+
+            measure("id-mapped", new IdMappedDisjointSet<>(), items, firsts, seconds, run == 1);
+            measure("array", new ArrayDisjointSet<>(), items, firsts, seconds, run == 1);
+        }
+    }
+
+    private static void measure(String name, IDisjointSet<Integer> forest, Integer[] items,
+                                int[] firsts, int[] seconds, boolean print) {
+        long start = System.nanoTime();
+        for (Integer item : items) {
+            forest.makeSet(item);
+        }
+        long made = System.nanoTime();
+        int numSets = items.length;
+        for (int i = 0; i < firsts.length; i++) {
+            Integer first = items[firsts[i]];
+            Integer second = items[seconds[i]];
+            if (forest.findSet(first) != forest.findSet(second)) {
+                forest.union(first, second);
+                numSets--;
+            }
+        }
+        long done = System.nanoTime();
+        if (print) {
+            report(name, start, made, done, firsts.length, numSets);
+        }
+    }
+
+    private static void report(String name, long start, long made, long done, int numUnions, int numSets) {
+        System.out.printf("%-10s %12d %12d %14.1f %8d%n", name, (made - start) / 1000000,
+                (done - made) / 1000000, (double) (done - made) / numUnions, numSets);
+    }
+}
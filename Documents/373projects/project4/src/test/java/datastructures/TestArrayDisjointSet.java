@@ -180,4 +180,66 @@ public class TestArrayDisjointSet extends BaseTest {
             assertEquals(id, chain.findSet(j));
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testSizeTracksUnions() {
+        String[] items = new String[] {"a", "b", "c", "d", "e"};
+        ArrayDisjointSet<String> forest = new ArrayDisjointSet<>();
+        for (String item : items) {
+            forest.makeSet(item);
+        }
+        assertEquals(1, forest.size("a"));
+
+        forest.union("a", "b");
+        forest.union("c", "d");
+        forest.union("b", "d");
+        for (int i = 0; i < 4; i++) {
+            assertEquals(4, forest.size(items[i]));
+        }
+        assertEquals(1, forest.size("e"));
+
+        try {
+            forest.size("f");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testUnionBySizeKeepsLargerRoot() {
+        ArrayDisjointSet<Integer> forest = new ArrayDisjointSet<>(true);
+        for (int i = 0; i < 10; i++) {
+            forest.makeSet(i);
+        }
+        for (int i = 1; i < 8; i++) {
+            forest.union(0, i);
+        }
+        int id = forest.findSet(0);
+        forest.union(8, 9);
+
+        // The two-item set always goes under the eight-item set
+        forest.union(9, 3);
+        assertEquals(id, forest.findSet(8));
+        assertEquals(10, forest.size(9));
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testHugeChainDoesNotOverflowStack() {
+        int numItems = 2000000;
+        for (boolean unionBySize : new boolean[] {false, true}) {
+            ArrayDisjointSet<Integer> forest = new ArrayDisjointSet<>(unionBySize);
+            for (int i = 0; i < numItems; i++) {
+                forest.makeSet(i);
+            }
+            for (int i = 1; i < numItems; i++) {
+                forest.union(i - 1, i);
+            }
+            int id = forest.findSet(numItems - 1);
+            for (int i = 0; i < numItems; i += 1000) {
+                assertEquals(id, forest.findSet(i));
+            }
+            assertEquals(numItems, forest.size(0));
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package datastructures;
+
+import datastructures.concrete.BitSetSet;
+import datastructures.concrete.ChainedHashSet;
+import datastructures.interfaces.ISet;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class TestBitSetSet extends BaseTest {
+    // Returns the set of ints in [from, to) that are multiples of 'step'
+    private BitSetSet range(int from, int to, int step) {
+        BitSetSet set = new BitSetSet();
+        for (int i = from; i < to; i++) {
+            if (i % step == 0) {
+                set.add(i);
+            }
+        }
+        return set;
+    }
+
+    @Test(timeout=SECOND)
+    public void testAddRemoveContains() {
+        BitSetSet set = new BitSetSet(0);
+        set.add(0);
+        set.add(63);
+        set.add(64);
+        set.add(1000);
+        set.add(64);
+        assertEquals(4, set.size());
+        assertTrue(set.contains(63));
+        assertTrue(set.contains(Integer.valueOf(1000)));
+        assertFalse(set.contains(62));
+        assertFalse(set.contains(-1));
+        assertFalse(set.contains(5000));
+        assertFalse(set.contains((Integer) null));
+
+        set.remove(63);
+        assertFalse(set.contains(63));
+        assertEquals(3, set.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testErrorHandling() {
+        BitSetSet set = new BitSetSet();
+        try {
+            set.add(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            set.remove(3);
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+        try {
+            new BitSetSet(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIteratorIsInOrder() {
+        BitSetSet set = this.range(0, 500, 7);
+        Iterator<Integer> iter = set.iterator();
+        for (int i = 0; i < 500; i += 7) {
+            assertTrue(iter.hasNext());
+            assertEquals(i, iter.next());
+        }
+        assertFalse(iter.hasNext());
+
+        int count = 0;
+        for (int i = set.nextItem(0); i != -1; i = set.nextItem(i + 1)) {
+            assertEquals(0, i % 7);
+            count++;
+        }
+        assertEquals(set.size(), count);
+    }
+
+    @Test(timeout=SECOND)
+    public void testSetOperations() {
+        // Sets of different lengths, so both the shared and unshared words matter
+        BitSetSet small = this.range(0, 300, 2);
+        BitSetSet big = this.range(0, 1000, 3);
+        for (int flip = 0; flip < 2; flip++) {
+            BitSetSet a = flip == 0 ? small : big;
+            BitSetSet b = flip == 0 ? big : small;
+            ISet<Integer> union = a.union(b);
+            ISet<Integer> intersection = a.intersect(b);
+            ISet<Integer> difference = a.difference(b);
+            int unionSize = 0;
+            int intersectionSize = 0;
+            int differenceSize = 0;
+            for (int i = 0; i < 1000; i++) {
+                boolean inA = a.contains(i);
+                boolean inB = b.contains(i);
+                assertEquals(inA || inB, union.contains(i));
+                assertEquals(inA && inB, intersection.contains(i));
+                assertEquals(inA && !inB, difference.contains(i));
+                unionSize += inA || inB ? 1 : 0;
+                intersectionSize += inA && inB ? 1 : 0;
+                differenceSize += inA && !inB ? 1 : 0;
+            }
+            assertEquals(unionSize, union.size());
+            assertEquals(intersectionSize, intersection.size());
+            assertEquals(differenceSize, difference.size());
+        }
+        assertEquals(150, small.size());
+        assertEquals(334, big.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testSetOperationsWithOtherKindsOfSet() {
+        BitSetSet set = this.range(0, 100, 2);
+        ISet<Integer> other = new ChainedHashSet<>();
+        for (int i = 0; i < 100; i += 3) {
+            other.add(i);
+        }
+        assertEquals(67, set.union(other).size());
+        assertEquals(17, set.intersect(other).size());
+        assertEquals(33, set.difference(other).size());
+
+        set.removeAll(other);
+        assertEquals(33, set.size());
+        assertFalse(set.contains(6));
+        set.retainAll(other);
+        assertTrue(set.isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package datastructures;
+
+import datastructures.concrete.BlockedBloomFilter;
+import misc.BaseTest;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestBlockedBloomFilter extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testNoFalseNegatives() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(10000, 0.01);
+        for (int i = 0; i < 20000; i++) {
+            filter.add("item" + i);
+        }
+        filter.add(null);
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(filter.mightContain("item" + i));
+        }
+        assertTrue(filter.mightContain(null));
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testFalsePositiveRateNearTarget() {
+        double[] rates = {0.1, 0.01, 0.001};
+        for (double rate : rates) {
+            BlockedBloomFilter filter = new BlockedBloomFilter(100000, rate);
+            for (int i = 0; i < 100000; i++) {
+                filter.add(i);
+            }
+            int falsePositives = 0;
+            for (int i = 100000; i < 1100000; i++) {
+                if (filter.mightContain(i)) {
+                    falsePositives++;
+                }
+            }
+            // Blocking costs some accuracy, so allow twice the target
+            double measured = falsePositives / 1000000.0;
+            assertTrue("rate " + rate + " measured " + measured, measured < 2 * rate);
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testEmptyFilter() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(0, 0.01);
+        assertFalse(filter.mightContain("a"));
+        filter.add("a");
+        assertTrue(filter.mightContain("a"));
+    }
+
+    @Test(timeout=SECOND)
+    public void testErrorHandling() {
+        double[] badRates = {0, 1, -0.5, Double.NaN};
+        for (double rate : badRates) {
+            try {
+                new BlockedBloomFilter(10, rate);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ex) {
+                // All ok -- expected result
+            }
+        }
+        try {
+            new BlockedBloomFilter(-1, 0.01);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package datastructures;
 
 import datastructures.concrete.ChainedHashSet;
+import datastructures.concrete.dictionaries.DictionaryKind;
 import datastructures.interfaces.ISet;
 import misc.BaseTest;
 import org.junit.Test;
@@ -383,4 +384,162 @@ public class TestChainedHashSet extends BaseTest {
             assertFalse(set.contains(i));
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testAddAll() {
+        ISet<Integer> set = new ChainedHashSet<>(10);
+        for (int i = 0; i < 500; i++) {
+            set.add(i);
+        }
+        ISet<Integer> other = new ChainedHashSet<>();
+        for (int i = 250; i < 1000; i++) {
+            other.add(i);
+        }
+
+        set.addAll(other);
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.contains(i));
+        }
+        assertEquals(750, other.size());
+
+        // Also works from a set of another kind
+        ISet<Integer> open = new ChainedHashSet<>(DictionaryKind.OPEN_ADDRESSING, 1000);
+        open.addAll(set);
+        assertEquals(1000, open.size());
+        open.add(1000);
+        assertTrue(open.contains(1000));
+    }
+
+    // Returns the set of ints in [from, to) that are multiples of 'step'
+    private ISet<Integer> range(int from, int to, int step, DictionaryKind kind) {
+        ISet<Integer> set = new ChainedHashSet<>(kind);
+        for (int i = from; i < to; i++) {
+            if (i % step == 0) {
+                set.add(i);
+            }
+        }
+        return set;
+    }
+
+    @Test(timeout=SECOND)
+    public void testUnionIntersectDifference() {
+        for (DictionaryKind kind : DictionaryKind.values()) {
+            // Check both orders, since each operation picks a strategy by size
+            for (int flip = 0; flip < 2; flip++) {
+                ISet<Integer> a = this.range(0, 1000, flip == 0 ? 2 : 3, kind);
+                ISet<Integer> b = this.range(0, 1000, flip == 0 ? 3 : 2, kind);
+                int sizeA = a.size();
+                int sizeB = b.size();
+
+                ISet<Integer> union = a.union(b);
+                ISet<Integer> intersection = a.intersect(b);
+                ISet<Integer> difference = a.difference(b);
+                for (int i = 0; i < 1000; i++) {
+                    boolean inA = i % (flip == 0 ? 2 : 3) == 0;
+                    boolean inB = i % (flip == 0 ? 3 : 2) == 0;
+                    assertEquals(inA || inB, union.contains(i));
+                    assertEquals(inA && inB, intersection.contains(i));
+                    assertEquals(inA && !inB, difference.contains(i));
+                }
+                assertEquals(667, union.size());
+                assertEquals(167, intersection.size());
+                assertEquals(sizeA - 167, difference.size());
+
+                // Neither input changes
+                assertEquals(sizeA, a.size());
+                assertEquals(sizeB, b.size());
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testRetainAllAndRemoveAll() {
+        for (int flip = 0; flip < 2; flip++) {
+            ISet<Integer> retained = this.range(0, 1000, flip == 0 ? 2 : 3, DictionaryKind.CHAINED);
+            ISet<Integer> removed = this.range(0, 1000, flip == 0 ? 2 : 3, DictionaryKind.CHAINED);
+            ISet<Integer> other = this.range(0, 1000, flip == 0 ? 3 : 2, DictionaryKind.CHAINED);
+            retained.retainAll(other);
+            removed.removeAll(other);
+            for (int i = 0; i < 1000; i++) {
+                boolean inSelf = i % (flip == 0 ? 2 : 3) == 0;
+                boolean inOther = i % (flip == 0 ? 3 : 2) == 0;
+                assertEquals(inSelf && inOther, retained.contains(i));
+                assertEquals(inSelf && !inOther, removed.contains(i));
+            }
+            assertEquals(167, retained.size());
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testSetOperationsWithItself() {
+        ISet<String> set = this.makeBasicSet();
+        this.assertSetMatches(new String[] {"keyA", "keyB", "keyC"}, set.union(set));
+        this.assertSetMatches(new String[] {"keyA", "keyB", "keyC"}, set.intersect(set));
+        this.assertSetMatches(new String[] {}, set.difference(set));
+
+        set.retainAll(set);
+        this.assertSetMatches(new String[] {"keyA", "keyB", "keyC"}, set);
+        set.removeAll(set);
+        this.assertSetMatches(new String[] {}, set);
+        set.add("keyD");
+        this.assertSetMatches(new String[] {"keyD"}, set);
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testBloomFilteredSet() {
+        // Sized for far fewer items than it gets, so the filter is rebuilt
+        ISet<Integer> set = new ChainedHashSet<>(10, 0.01);
+        for (int i = 0; i < 10000; i += 2) {
+            set.add(i);
+        }
+        assertEquals(5000, set.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 0, set.contains(i));
+        }
+
+        for (int i = 0; i < 10000; i += 4) {
+            set.remove(i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 4 == 2, set.contains(i));
+        }
+
+        ISet<Integer> other = new ChainedHashSet<>();
+        for (int i = 0; i < 20000; i += 3) {
+            other.add(i);
+        }
+        set.addAll(other);
+        for (int i = 0; i < 20000; i++) {
+            assertEquals((i < 10000 && i % 4 == 2) || i % 3 == 0, set.contains(i));
+        }
+
+        // Shrinks in place by rebuilding both the table and the filter
+        ISet<Integer> keep = this.range(0, 100, 1, DictionaryKind.CHAINED);
+        set.retainAll(keep);
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(i < 100 && (i % 4 == 2 || i % 3 == 0), set.contains(i));
+        }
+        set.removeAll(set);
+        assertTrue(set.isEmpty());
+        set.add(7);
+        assertTrue(set.contains(7));
+        assertFalse(set.contains(8));
+    }
+
+    @Test(timeout=SECOND)
+    public void testBloomFilteredSetErrorHandling() {
+        try {
+            new ChainedHashSet<String>(10, 1.0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            new ChainedHashSet<String>(-1, 0.01);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
 }
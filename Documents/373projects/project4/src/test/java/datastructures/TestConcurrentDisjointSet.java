@@ -0,0 +1,138 @@
+package datastructures;
+
+import datastructures.concrete.ConcurrentDisjointSet;
+import datastructures.concrete.IntDisjointSet;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestConcurrentDisjointSet extends BaseTest {
+    private ConcurrentDisjointSet<Integer> createForest(int numItems) {
+        ConcurrentDisjointSet<Integer> forest = new ConcurrentDisjointSet<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            forest.makeSet(i);
+        }
+        return forest;
+    }
+
+    @Test(timeout=SECOND)
+    public void testSingleThreadedBasics() {
+        ConcurrentDisjointSet<String> forest = new ConcurrentDisjointSet<>();
+        String[] items = new String[] {"a", "b", "c", "d", "e"};
+        for (int i = 0; i < items.length; i++) {
+            forest.makeSet(items[i]);
+            assertEquals(i, forest.findSet(items[i]));
+        }
+
+        forest.union("a", "b");
+        forest.union("c", "d");
+        assertTrue(forest.connected("a", "b"));
+        assertFalse(forest.connected("a", "c"));
+        assertTrue(forest.tryUnion("b", "d"));
+        assertFalse(forest.tryUnion("a", "c"));
+        assertEquals(forest.findSet("a"), forest.findSet("d"));
+        assertEquals(4, forest.findSet("e"));
+    }
+
+    @Test(timeout=SECOND)
+    public void testIllegalArguments() {
+        ConcurrentDisjointSet<String> forest = new ConcurrentDisjointSet<>();
+        forest.makeSet("a");
+        forest.makeSet("b");
+        try {
+            forest.makeSet("a");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        assertEquals(2, forest.size());
+        try {
+            forest.findSet("f");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+
+        forest.union("a", "b");
+        try {
+            forest.union("a", "b");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testMakeSetGrowsPastExpectedSize() {
+        ConcurrentDisjointSet<Integer> forest = new ConcurrentDisjointSet<>(0);
+        for (int i = 0; i < 1000; i++) {
+            forest.makeSet(i);
+            if (i > 0) {
+                forest.union(i - 1, i);
+            }
+        }
+        assertEquals(1000, forest.size());
+        assertTrue(forest.connected(0, 999));
+    }
+
+    @Test(timeout=20 * SECOND)
+    public void testConcurrentUnionsMatchSequentialResult() throws InterruptedException {
+        int numItems = 200000;
+        int numEdges = 400000;
+        Random rand = new Random(373);
+        int[] sources = new int[numEdges];
+        int[] targets = new int[numEdges];
+        IntDisjointSet expected = new IntDisjointSet(numItems);
+        for (int i = 0; i < numEdges; i++) {
+            sources[i] = rand.nextInt(numItems);
+            targets[i] = rand.nextInt(numItems);
+            expected.union(sources[i], targets[i]);
+        }
+
+        int[] threadCounts = {1, 2, 4, 8};
+        for (int numThreads : threadCounts) {
+            ConcurrentDisjointSet<Integer> forest = this.createForest(numItems);
+            int merged = this.unionInParallel(forest, sources, targets, numThreads);
+
+            // Exactly one thread wins each merge, whatever the interleaving
+            assertEquals(numItems - expected.numSets(), merged);
+            for (int i = 0; i < numItems; i += 7) {
+                int other = rand.nextInt(numItems);
+                assertEquals(expected.connected(i, other), forest.connected(i, other));
+            }
+        }
+    }
+
+    // Splits the edges into one contiguous chunk per thread, and returns how
+    // many of the unions actually merged two sets
+    private int unionInParallel(ConcurrentDisjointSet<Integer> forest, int[] sources, int[] targets,
+                                int numThreads) throws InterruptedException {
+        AtomicInteger merged = new AtomicInteger(0);
+        Thread[] threads = new Thread[numThreads];
+        int chunk = (sources.length + numThreads - 1) / numThreads;
+        for (int t = 0; t < numThreads; t++) {
+            int from = t * chunk;
+            int to = Math.min(sources.length, from + chunk);
+            threads[t] = new Thread(() -> {
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (forest.tryUnion(sources[i], targets[i])) {
+                        count++;
+                    }
+                }
+                merged.addAndGet(count);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return merged.get();
+    }
+}
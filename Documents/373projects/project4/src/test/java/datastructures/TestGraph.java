@@ -1,8 +1,14 @@
 package datastructures;
 
 import datastructures.concrete.DoubleLinkedList;
+import datastructures.concrete.dictionaries.DictionaryKind;
 import datastructures.interfaces.IList;
 import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Room;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+import mazes.generators.maze.KruskalMazeCarver;
 import misc.BaseTest;
 import misc.exceptions.NoPathExistsException;
 import misc.graphs.Edge;
@@ -11,6 +17,11 @@ import org.junit.Test;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
 public class TestGraph extends BaseTest {
     public static class SimpleEdge<V> implements Edge<V>, Comparable<SimpleEdge<V>> {
         private V vertex1;
@@ -342,6 +353,355 @@ public class TestGraph extends BaseTest {
         }
     }
 
+    @Test(timeout=SECOND)
+    public void testFindingShortestPathFractionalWeights() {
+        IList<String> vertices = new DoubleLinkedList<>();
+        vertices.add("a");
+        vertices.add("b");
+        vertices.add("c");
+        vertices.add("d");
+
+        // The cheapest path differs from the next-cheapest by less than 1
+        IList<SimpleEdge<String>> edges = new DoubleLinkedList<>();
+        edges.add(edge("a", "b", 0.4));
+        edges.add(edge("b", "d", 0.4));
+        edges.add(edge("a", "c", 0.5));
+        edges.add(edge("c", "d", 0.6));
+        edges.add(edge("a", "d", 1.2));
+
+        Graph<String, SimpleEdge<String>> graph = new Graph<>(vertices, edges);
+
+        checkPathMatches(graph, 0.8, new String[] {"a", "b", "d"});
+        checkPathMatches(graph, 0.8, new String[] {"d", "b", "a"});
+    }
+
+    @Test(timeout=SECOND)
+    public void testFrozenGraphGivesSameAnswers() {
+        Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph().freeze();
+        assertTrue(graph.isFrozen());
+        assertEquals(11, graph.numVertices());
+        assertEquals(20, graph.numEdges());
+
+        checkPathMatches(graph, 6, new String[] {"a", "b", "c", "f", "e", "g"});
+        checkPathMatches(graph, 2, new String[] {"i", "k"});
+        try {
+            graph.findShortestPathBetween("a", "i");
+            fail("Expected NoPathExistsException");
+        } catch (NoPathExistsException ex) {
+            // All ok -- expected result
+        }
+
+        Graph<String, SimpleEdge<String>> complex = this.buildComplexGraph().freeze();
+        ISet<SimpleEdge<String>> mst = complex.findMinimumSpanningTree();
+        assertEquals(complex.numVertices() - 1, mst.size());
+        assertTrue(mst.contains(edge("a", "b", 1)));
+        assertTrue(mst.contains(edge("b", "c", 2)));
+        assertTrue(mst.contains(edge("c", "d", 3)));
+        assertTrue(mst.contains(edge("e", "f", 1)));
+        assertTrue(mst.contains(edge("e", "g", 2)));
+    }
+
+    @Test(timeout=SECOND)
+    public void testBuilderMatchesConstructor() {
+        IList<String> vertices = new DoubleLinkedList<>();
+        vertices.add("c");
+        vertices.add("d");
+
+        Graph<String, SimpleEdge<String>> graph = Graph.<String, SimpleEdge<String>>builder()
+                .addVertex("a")
+                .addVertex("b")
+                .addVertices(vertices)
+                .addEdge(edge("a", "b", 1))
+                .addEdge(edge("b", "c", 2))
+                .addEdge(edge("c", "d", 3))
+                .addEdge(edge("a", "d", 10))
+                .build();
+
+        assertEquals(4, graph.numVertices());
+        assertEquals(4, graph.numEdges());
+        checkPathMatches(graph, 6, new String[] {"a", "b", "c", "d"});
+
+        try {
+            Graph.<String, SimpleEdge<String>>builder()
+                    .addVertex("a")
+                    .addEdge(edge("a", "z", 1))
+                    .build();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testLargeGraphConstructionIsNotQuadratic() {
+        int size = 300;
+        for (DictionaryKind kind : DictionaryKind.values()) {
+            Graph.Builder<Integer, SimpleEdge<Integer>> builder = Graph.builder();
+            builder.dictionaryKind(kind);
+            for (int i = 0; i < size * size; i++) {
+                builder.addVertex(i);
+            }
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int id = row * size + col;
+                    if (col + 1 < size) {
+                        builder.addEdge(edge(id, id + 1, 1));
+                    }
+                    if (row + 1 < size) {
+                        builder.addEdge(edge(id, id + size, 1));
+                    }
+                }
+            }
+            Graph<Integer, SimpleEdge<Integer>> graph = builder.build();
+
+            assertEquals(size * size, graph.numVertices());
+            assertEquals(2 * size * (size - 1), graph.numEdges());
+            assertEquals(2 * (size - 1), graph.findShortestPathBetween(0, size * size - 1).size());
+            assertEquals(size * size - 1, graph.findMinimumSpanningTree().size());
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testAStarWithZeroHeuristicMatchesDijkstra() {
+        Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
+        String[][] queries = {{"a", "g"}, {"g", "d"}, {"i", "k"}, {"k", "h"}};
+        for (String[] query : queries) {
+            IList<SimpleEdge<String>> expected = graph.findShortestPathBetween(query[0], query[1]);
+            IList<SimpleEdge<String>> actual = graph.findShortestPathAStar(query[0], query[1], v -> 0.0);
+            assertEquals(pathCost(expected), pathCost(actual), 0.0001);
+        }
+
+        assertEquals(0, graph.findShortestPathAStar("a", "a", v -> 0.0).size());
+        try {
+            graph.findShortestPathAStar("a", "i", v -> 0.0);
+            fail("Expected NoPathExistsException");
+        } catch (NoPathExistsException ex) {
+            // All ok -- expected result
+        }
+        try {
+            graph.findShortestPathAStar("a", "g", v -> -1.0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testAStarOnGridMaze() {
+        Maze maze = new GridGenerator(100, 100).generateBaseMaze(new Rectangle(3, 3, 1001, 1001));
+        Graph<Room, Wall> graph = new Graph<>(maze.getRooms(), maze.getWalls());
+
+        Room start = maze.getRoom(new Point(8, 8));
+        Room end = maze.getRoom(new Point(998, 998));
+        IList<Wall> dijkstra = graph.findShortestPathBetween(start, end);
+        IList<Wall> astar = graph.findShortestPathAStar(start, end, Wall.euclideanHeuristic(end));
+
+        assertEquals(198, astar.size());
+        assertEquals(pathCost(dijkstra), pathCost(astar), 0.0001);
+    }
+
+    // Runs A* with the Euclidean heuristic and with a zero heuristic (which is
+    // Dijkstra's algorithm), checks that both find equally short paths, and
+    // returns how many vertices each one reached. The search calls the
+    // heuristic once for every vertex it reaches, so counting the calls
+    // measures its work through the public API.
+    private int[] compareAStarWithDijkstra(Graph<Room, Wall> graph, Room start, Room end) {
+        int[] calls = new int[2];
+        ToDoubleFunction<Room> euclidean = Wall.euclideanHeuristic(end);
+        IList<Wall> dijkstra = graph.findShortestPathAStar(start, end, room -> {
+            calls[0]++;
+            return 0.0;
+        });
+        IList<Wall> astar = graph.findShortestPathAStar(start, end, room -> {
+            calls[1]++;
+            return euclidean.applyAsDouble(room);
+        });
+        assertEquals(pathCost(dijkstra), pathCost(astar), 0.0001);
+        assertTrue(calls[1] + " > " + calls[0], calls[1] <= calls[0]);
+        return calls;
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testAStarReachesFewerRoomsOnOpenGrid() {
+        Maze maze = new GridGenerator(100, 100).generateBaseMaze(new Rectangle(3, 3, 1001, 1001));
+        Graph<Room, Wall> graph = new Graph<>(maze.getRooms(), maze.getWalls());
+
+        // Dijkstra spreads out in every direction, while A* heads almost
+        // straight for the end
+        int[] calls = compareAStarWithDijkstra(graph,
+                maze.getRoom(new Point(408, 508)), maze.getRoom(new Point(608, 508)));
+        assertTrue(calls[1] + " vs " + calls[0], 10 * calls[1] < calls[0]);
+
+        // From corner to corner, nearly every room is on some shortest path
+        compareAStarWithDijkstra(graph, maze.getRoom(new Point(8, 8)), maze.getRoom(new Point(998, 998)));
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testAStarReachesNoMoreRoomsOnCarvedMaze() {
+        Maze base = new GridGenerator(100, 100).generateBaseMaze(new Rectangle(3, 3, 1001, 1001));
+        Maze maze = new KruskalMazeCarver().generateMaze(base);
+        Graph<Room, Wall> graph = new Graph<>(maze.getRooms(), base.getWalls().difference(maze.getWalls()));
+
+        compareAStarWithDijkstra(graph, maze.getRoom(new Point(8, 8)), maze.getRoom(new Point(998, 998)));
+        compareAStarWithDijkstra(graph, maze.getRoom(new Point(408, 508)), maze.getRoom(new Point(608, 508)));
+    }
+
+    @Test(timeout=SECOND)
+    public void testBidirectionalMatchesDijkstra() {
+        Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
+        String[] names = {"a", "b", "c", "d", "e", "f", "g"};
+        for (String start : names) {
+            for (String end : names) {
+                IList<SimpleEdge<String>> expected = graph.findShortestPathBetween(start, end);
+                IList<SimpleEdge<String>> actual = graph.findShortestPathBidirectional(start, end);
+                assertEquals(pathCost(expected), pathCost(actual), 0.0001);
+                assertPathConnects(start, end, actual);
+            }
+        }
+
+        try {
+            graph.findShortestPathBidirectional("a", "i");
+            fail("Expected NoPathExistsException");
+        } catch (NoPathExistsException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testBidirectionalOnRandomGraph() {
+        Random rand = new Random(373);
+        int numVertices = 2000;
+        IList<Integer> vertices = new DoubleLinkedList<>();
+        for (int i = 0; i < numVertices; i++) {
+            vertices.add(i);
+        }
+        IList<SimpleEdge<Integer>> edges = new DoubleLinkedList<>();
+        for (int i = 0; i < 4 * numVertices; i++) {
+            edges.add(edge(rand.nextInt(numVertices), rand.nextInt(numVertices), rand.nextDouble() * 10));
+        }
+        Graph<Integer, SimpleEdge<Integer>> graph = new Graph<>(vertices, edges);
+
+        for (int i = 0; i < 50; i++) {
+            int start = rand.nextInt(numVertices);
+            int end = rand.nextInt(numVertices);
+            try {
+                IList<SimpleEdge<Integer>> expected = graph.findShortestPathBetween(start, end);
+                IList<SimpleEdge<Integer>> actual = graph.findShortestPathBidirectional(start, end);
+                assertEquals(pathCost(expected), pathCost(actual), 0.0001);
+                assertPathConnects(start, end, actual);
+            } catch (NoPathExistsException ex) {
+                try {
+                    graph.findShortestPathBidirectional(start, end);
+                    fail("Expected NoPathExistsException");
+                } catch (NoPathExistsException ex2) {
+                    // All ok -- expected result
+                }
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testFindingMstRepeatedly() {
+        Graph<String, SimpleEdge<String>> graph = this.buildComplexGraph();
+        for (int i = 0; i < 5; i++) {
+            for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+                ISet<SimpleEdge<String>> mst = graph.findMinimumSpanningTree(algorithm);
+                assertEquals(graph.numVertices() - 1, mst.size());
+                assertTrue(mst.contains(edge("a", "b", 1)));
+                assertTrue(mst.contains(edge("b", "c", 2)));
+                assertTrue(mst.contains(edge("c", "d", 3)));
+                assertTrue(mst.contains(edge("e", "f", 1)));
+                assertTrue(mst.contains(edge("e", "g", 2)));
+            }
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testMstAlgorithmsAgreeOnRandomGraph() {
+        Random rand = new Random(373);
+        int numVertices = 5000;
+        IList<Integer> vertices = new DoubleLinkedList<>();
+        IList<SimpleEdge<Integer>> edges = new DoubleLinkedList<>();
+        for (int i = 0; i < numVertices; i++) {
+            vertices.add(i);
+            if (i > 0) {
+                // Keeps the graph connected
+                edges.add(edge(i, rand.nextInt(i), rand.nextDouble() * 100));
+            }
+        }
+        for (int i = 0; i < 5 * numVertices; i++) {
+            edges.add(edge(rand.nextInt(numVertices), rand.nextInt(numVertices), rand.nextDouble() * 100));
+        }
+        Graph<Integer, SimpleEdge<Integer>> graph = new Graph<>(vertices, edges);
+
+        double expected = setCost(graph.findMinimumSpanningTree());
+        for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+            ISet<SimpleEdge<Integer>> mst = graph.findMinimumSpanningTree(algorithm);
+            assertEquals(numVertices - 1, mst.size());
+            assertEquals(expected, setCost(mst), 0.0001);
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testMstOfDisconnectedGraphIsSpanningForest() {
+        Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
+        for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+            ISet<SimpleEdge<String>> forest = graph.findMinimumSpanningTree(algorithm);
+            // Two components, so two fewer edges than vertices
+            assertEquals(graph.numVertices() - 2, forest.size());
+            assertEquals(13.0, setCost(forest), 0.0001);
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testMstAlgorithmsHandleManyEqualWeights() {
+        Random rand = new Random(373);
+        int numVertices = 2000;
+        IList<Integer> vertices = new DoubleLinkedList<>();
+        IList<SimpleEdge<Integer>> edges = new DoubleLinkedList<>();
+        for (int i = 0; i < numVertices; i++) {
+            vertices.add(i);
+            if (i > 0) {
+                edges.add(edge(i, rand.nextInt(i), 1 + rand.nextInt(3)));
+            }
+        }
+        for (int i = 0; i < 10 * numVertices; i++) {
+            edges.add(edge(rand.nextInt(numVertices), rand.nextInt(numVertices), 1 + rand.nextInt(3)));
+        }
+        Graph<Integer, SimpleEdge<Integer>> graph = new Graph<>(vertices, edges);
+
+        double expected = setCost(graph.findMinimumSpanningTree());
+        for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+            ISet<SimpleEdge<Integer>> mst = graph.findMinimumSpanningTree(algorithm);
+            assertEquals(numVertices - 1, mst.size());
+            assertEquals(expected, setCost(mst), 0.0001);
+        }
+    }
+
+    private <E extends Edge<?>> double setCost(ISet<E> edges) {
+        double cost = 0.0;
+        for (E edge : edges) {
+            cost += edge.getWeight();
+        }
+        return cost;
+    }
+
+    private <V, E extends Edge<V>> void assertPathConnects(V start, V end, IList<E> path) {
+        V current = start;
+        for (E edge : path) {
+            current = edge.getOtherVertex(current);
+        }
+        assertEquals(end, current);
+    }
+
+    private <V, E extends Edge<V>> double pathCost(IList<E> path) {
+        double cost = 0.0;
+        for (E edge : path) {
+            cost += edge.getWeight();
+        }
+        return cost;
+    }
+
     @Test(timeout=SECOND)
     public void testSoloCyclicUnconnected() {
         IList<String> vertices = new DoubleLinkedList<>();
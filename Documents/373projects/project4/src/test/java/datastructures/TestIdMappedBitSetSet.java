@@ -0,0 +1,100 @@
+package datastructures;
+
+import datastructures.concrete.ChainedHashSet;
+import datastructures.concrete.IdMappedBitSetSet;
+import datastructures.interfaces.ISet;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class TestIdMappedBitSetSet extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testAddRemoveContains() {
+        ISet<String> set = new IdMappedBitSetSet<>();
+        set.add("a");
+        set.add("b");
+        set.add("a");
+        set.add(null);
+        assertEquals(3, set.size());
+        assertTrue(set.contains("a"));
+        assertTrue(set.contains(null));
+        assertFalse(set.contains("c"));
+
+        set.remove("a");
+        assertFalse(set.contains("a"));
+        assertEquals(2, set.size());
+        try {
+            set.remove("c");
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+        try {
+            set.remove("a");
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testSetsShareIds() {
+        IdMappedBitSetSet.Domain<String> domain = new IdMappedBitSetSet.Domain<>();
+        IdMappedBitSetSet<String> a = new IdMappedBitSetSet<>(domain);
+        IdMappedBitSetSet<String> b = new IdMappedBitSetSet<>(domain);
+        for (int i = 0; i < 200; i++) {
+            if (i % 2 == 0) {
+                a.add("item" + i);
+            }
+            if (i % 3 == 0) {
+                b.add("item" + i);
+            }
+        }
+        assertEquals(133, domain.size());
+        assertEquals(domain.idOf("item6"), a.domain().idOf("item6"));
+
+        ISet<String> union = a.union(b);
+        ISet<String> intersection = a.intersect(b);
+        ISet<String> difference = a.difference(b);
+        for (int i = 0; i < 200; i++) {
+            String item = "item" + i;
+            assertEquals(i % 2 == 0 || i % 3 == 0, union.contains(item));
+            assertEquals(i % 6 == 0, intersection.contains(item));
+            assertEquals(i % 2 == 0 && i % 3 != 0, difference.contains(item));
+        }
+        assertEquals(133, union.size());
+        assertEquals(34, intersection.size());
+        assertEquals(66, difference.size());
+
+        int count = 0;
+        for (String item : intersection) {
+            assertEquals(0, Integer.parseInt(item.substring(4)) % 6);
+            count++;
+        }
+        assertEquals(34, count);
+    }
+
+    @Test(timeout=SECOND)
+    public void testSetOperationsAcrossDomains() {
+        ISet<Integer> a = new IdMappedBitSetSet<>();
+        ISet<Integer> b = new IdMappedBitSetSet<>();
+        ISet<Integer> c = new ChainedHashSet<>();
+        for (int i = 0; i < 100; i++) {
+            a.add(i);
+            if (i >= 50) {
+                b.add(i);
+                c.add(i);
+            }
+        }
+        assertEquals(50, a.intersect(b).size());
+        assertEquals(50, a.difference(c).size());
+
+        a.retainAll(c);
+        assertEquals(50, a.size());
+        a.removeAll(b);
+        assertTrue(a.isEmpty());
+    }
+}
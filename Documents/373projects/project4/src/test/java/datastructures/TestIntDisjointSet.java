@@ -0,0 +1,152 @@
+package datastructures;
+
+import datastructures.concrete.IdMappedDisjointSet;
+import datastructures.concrete.IntDisjointSet;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIntDisjointSet extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testFindSetStartsAsSingletons() {
+        IntDisjointSet forest = new IntDisjointSet(5);
+        assertEquals(5, forest.size());
+        assertEquals(5, forest.numSets());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, forest.findSet(i));
+            assertEquals(1, forest.setSize(i));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testUnionReportsWhetherSetsChanged() {
+        IntDisjointSet forest = new IntDisjointSet(5);
+        assertTrue(forest.union(0, 1));
+        assertTrue(forest.union(2, 3));
+        assertFalse(forest.union(1, 0));
+        assertTrue(forest.union(1, 3));
+        assertFalse(forest.union(0, 2));
+
+        assertEquals(2, forest.numSets());
+        assertTrue(forest.connected(0, 3));
+        assertFalse(forest.connected(0, 4));
+        assertEquals(4, forest.setSize(2));
+        assertEquals(1, forest.setSize(4));
+    }
+
+    @Test(timeout=SECOND)
+    public void testMakeSetGrows() {
+        IntDisjointSet forest = new IntDisjointSet();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, forest.makeSet());
+            if (i > 0) {
+                forest.union(i - 1, i);
+            }
+        }
+        assertEquals(1000, forest.size());
+        assertEquals(1, forest.numSets());
+        assertEquals(1000, forest.setSize(500));
+    }
+
+    @Test(timeout=SECOND)
+    public void testOutOfRangeIdsThrow() {
+        IntDisjointSet forest = new IntDisjointSet(3);
+        int[] badIds = {-1, 3, Integer.MAX_VALUE};
+        for (int id : badIds) {
+            try {
+                forest.findSet(id);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ex) {
+                // All ok -- expected result
+            }
+            try {
+                forest.union(0, id);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ex) {
+                // All ok -- expected result
+            }
+        }
+        try {
+            new IntDisjointSet(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testTenMillionUnions() {
+        int numIds = 10000000;
+        IntDisjointSet forest = new IntDisjointSet(numIds);
+        Random rand = new Random(373);
+        int merged = 0;
+        for (int i = 0; i < numIds; i++) {
+            if (forest.union(rand.nextInt(numIds), rand.nextInt(numIds))) {
+                merged++;
+            }
+        }
+        assertEquals(numIds - merged, forest.numSets());
+
+        // Chaining every id together must not overflow the stack
+        for (int i = 1; i < numIds; i++) {
+            forest.union(i - 1, i);
+        }
+        assertEquals(1, forest.numSets());
+        assertEquals(numIds, forest.setSize(0));
+    }
+
+    @Test(timeout=SECOND)
+    public void testIdMappedSetAgreesWithIds() {
+        String[] items = new String[] {"a", "b", "c", "d", "e"};
+        IdMappedDisjointSet<String> forest = new IdMappedDisjointSet<>();
+        for (String item : items) {
+            forest.makeSet(item);
+        }
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(i, forest.idOf(items[i]));
+            assertEquals(i, forest.findSet(items[i]));
+        }
+
+        forest.union("a", "b");
+        forest.ids().union(forest.idOf("c"), forest.idOf("b"));
+        assertEquals(forest.findSet("a"), forest.findSet("c"));
+        assertEquals(3, forest.size("b"));
+        assertEquals(4, forest.findSet("e"));
+    }
+
+    @Test(timeout=SECOND)
+    public void testIdMappedSetIllegalArguments() {
+        IdMappedDisjointSet<String> forest = new IdMappedDisjointSet<>();
+        forest.makeSet("a");
+        forest.makeSet("b");
+        try {
+            forest.makeSet("a");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        // The failed makeSet must not have used up an id
+        assertEquals(2, forest.ids().size());
+        forest.makeSet("c");
+        assertEquals(2, forest.idOf("c"));
+        try {
+            forest.findSet("f");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+
+        forest.union("a", "b");
+        try {
+            forest.union("b", "a");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package datastructures;
+
+import datastructures.concrete.IntDisjointSet;
+import datastructures.concrete.RollbackDisjointSet;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestRollbackDisjointSet extends BaseTest {
+    private RollbackDisjointSet<String> createForest(String[] items) {
+        RollbackDisjointSet<String> forest = new RollbackDisjointSet<>();
+        for (String item : items) {
+            forest.makeSet(item);
+        }
+        return forest;
+    }
+
+    @Test(timeout=SECOND)
+    public void testBehavesLikeDisjointSet() {
+        String[] items = new String[] {"a", "b", "c", "d", "e"};
+        RollbackDisjointSet<String> forest = this.createForest(items);
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(i, forest.findSet(items[i]));
+        }
+
+        forest.union("a", "b");
+        forest.union("c", "d");
+        forest.union("a", "d");
+        assertTrue(forest.connected("b", "c"));
+        assertFalse(forest.connected("a", "e"));
+        assertEquals(4, forest.size("d"));
+
+        try {
+            forest.union("b", "c");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            forest.findSet("f");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testRollbackRestoresCheckpoint() {
+        String[] items = new String[] {"a", "b", "c", "d", "e"};
+        RollbackDisjointSet<String> forest = this.createForest(items);
+        forest.union("a", "b");
+        int[] before = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            before[i] = forest.findSet(items[i]);
+        }
+
+        forest.checkpoint();
+        forest.union("c", "d");
+        forest.union("a", "c");
+        forest.makeSet("f");
+        forest.union("f", "e");
+        assertTrue(forest.connected("b", "d"));
+
+        forest.rollback();
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(before[i], forest.findSet(items[i]));
+        }
+        assertEquals(2, forest.size("a"));
+        assertEquals(0, forest.numCheckpoints());
+
+        // The rolled back item is gone, and can be added again
+        try {
+            forest.findSet("f");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        forest.makeSet("f");
+        assertEquals(5, forest.findSet("f"));
+    }
+
+    @Test(timeout=SECOND)
+    public void testNestedCheckpointsAndUndo() {
+        String[] items = new String[] {"a", "b", "c", "d"};
+        RollbackDisjointSet<String> forest = this.createForest(items);
+
+        forest.checkpoint();
+        forest.union("a", "b");
+        forest.checkpoint();
+        forest.union("c", "d");
+        forest.union("a", "c");
+
+        forest.undo();
+        assertTrue(forest.connected("c", "d"));
+        assertFalse(forest.connected("a", "c"));
+
+        forest.rollback();
+        assertFalse(forest.connected("c", "d"));
+        assertTrue(forest.connected("a", "b"));
+
+        // Undo can reach back to the outer checkpoint, but no further
+        forest.undo();
+        assertFalse(forest.connected("a", "b"));
+        try {
+            forest.undo();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            // All ok -- expected result
+        }
+
+        forest.rollback();
+        assertEquals(0, forest.numCheckpoints());
+        try {
+            forest.rollback();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testRandomEditsMatchRebuiltSets() {
+        int numItems = 2000;
+        Random rand = new Random(373);
+        RollbackDisjointSet<Integer> forest = new RollbackDisjointSet<>();
+        for (int i = 0; i < numItems; i++) {
+            forest.makeSet(i);
+        }
+
+        // Each round, join a few random pairs, check against a set rebuilt from
+        // scratch, then throw away about half of the rounds
+        int[] sources = new int[5 * 1000];
+        int[] targets = new int[5 * 1000];
+        int numJoins = 0;
+        int[] roundStarts = new int[1000];
+        int numRounds = 0;
+        for (int round = 0; round < 1000; round++) {
+            forest.checkpoint();
+            roundStarts[numRounds] = numJoins;
+            numRounds++;
+            for (int i = 0; i < 5; i++) {
+                int a = rand.nextInt(numItems);
+                int b = rand.nextInt(numItems);
+                if (!forest.connected(a, b)) {
+                    forest.union(a, b);
+                    sources[numJoins] = a;
+                    targets[numJoins] = b;
+                    numJoins++;
+                }
+            }
+            if (rand.nextBoolean()) {
+                forest.rollback();
+                numRounds--;
+                numJoins = roundStarts[numRounds];
+            }
+
+            IntDisjointSet expected = new IntDisjointSet(numItems);
+            for (int i = 0; i < numJoins; i++) {
+                expected.union(sources[i], targets[i]);
+            }
+            for (int i = 0; i < 20; i++) {
+                int a = rand.nextInt(numItems);
+                int b = rand.nextInt(numItems);
+                assertEquals(expected.connected(a, b), forest.connected(a, b));
+                assertEquals(expected.setSize(a), forest.size(a));
+            }
+        }
+    }
+}
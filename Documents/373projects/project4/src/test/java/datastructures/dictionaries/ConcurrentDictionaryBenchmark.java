@@ -0,0 +1,133 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.concrete.dictionaries.ConcurrentChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures the throughput of ConcurrentChainedHashDictionary against a
+ * ChainedHashDictionary behind one global lock, for a mix of 80% gets,
+ * 10% puts and 10% removes over a fixed key range, at 1, 2, 4 and 8 threads.
+ *
+ * This is not a test; run it by hand with
+ *
+ *     java datastructures.dictionaries.ConcurrentDictionaryBenchmark [opsPerThread]
+ *
+ * The numbers only mean something on a machine with several idle cores.
+ */
+public class ConcurrentDictionaryBenchmark {
+    private static final int KEY_RANGE = 1 << 20;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    public static void main(String[] args) throws InterruptedException {
+        int opsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        System.out.printf("%-12s %8s %14s%n", "dictionary", "threads", "Mops/second");
+        for (int numThreads : THREAD_COUNTS) {
+            // Run each once to warm up, then report the second run
+            for (int run = 0; run < 2; run++) {
+                double concurrent = measure(ConcurrentChainedHashDictionary::new, numThreads, opsPerThread);
+                double locked = measure(() -> new SynchronizedDictionary<>(new ChainedHashDictionary<>()),
+                        numThreads, opsPerThread);
+                if (run == 1) {
+                    System.out.printf("%-12s %8d %14.2f%n", "concurrent", numThreads, concurrent);
+                    System.out.printf("%-12s %8d %14.2f%n", "synchronized", numThreads, locked);
+                }
+            }
+        }
+    }
+
+    // Returns millions of operations per second
+    private static double measure(Supplier<IDictionary<Integer, Integer>> factory, int numThreads,
+                                  int opsPerThread) throws InterruptedException {
+        IDictionary<Integer, Integer> dict = factory.get();
+        for (int i = 0; i < KEY_RANGE; i += 2) {
+            dict.put(i, i);
+        }
+
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random rand = new Random(seed);
+                for (int i = 0; i < opsPerThread; i++) {
+                    int key = rand.nextInt(KEY_RANGE);
+                    int choice = rand.nextInt(10);
+                    if (choice == 0) {
+                        dict.put(key, i);
+                    } else if (choice == 1) {
+                        dict.getOrDefault(key, null);
+                        if (dict.containsKey(key)) {
+                            try {
+                                dict.remove(key);
+                            } catch (RuntimeException ex) {
+                                // Another thread removed it first
+                            }
+                        }
+                    } else {
+                        dict.getOrDefault(key, null);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        return (double) numThreads * opsPerThread / elapsed * 1000;
+    }
+
+    /**
+     * Makes any dictionary thread-safe by running every call under one lock.
+     */
+    private static class SynchronizedDictionary<K, V> implements IDictionary<K, V> {
+        private final IDictionary<K, V> inner;
+
+        public SynchronizedDictionary(IDictionary<K, V> inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        public synchronized V get(K key) {
+            return this.inner.get(key);
+        }
+
+        @Override
+        public synchronized V getOrDefault(K key, V defaultValue) {
+            return this.inner.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public synchronized void put(K key, V value) {
+            this.inner.put(key, value);
+        }
+
+        @Override
+        public synchronized V remove(K key) {
+            return this.inner.remove(key);
+        }
+
+        @Override
+        public synchronized boolean containsKey(K key) {
+            return this.inner.containsKey(key);
+        }
+
+        @Override
+        public synchronized int size() {
+            return this.inner.size();
+        }
+
+        @Override
+        public Iterator<KVPair<K, V>> iterator() {
+            return this.inner.iterator();
+        }
+    }
+}
@@ -2,9 +2,37 @@ package datastructures.dictionaries;
 
 import datastructures.concrete.dictionaries.ArrayDictionary;
 import datastructures.interfaces.IDictionary;
+import org.junit.Test;
+
+import static org.junit.Assert.fail;
 
 public class TestArrayDictionary extends TestDictionary {
     protected <K, V> IDictionary<K, V> newDictionary() {
         return new ArrayDictionary<>();
     }
+
+    @Test(timeout=SECOND)
+    public void testPresizedDictionary() {
+        IDictionary<Integer, Integer> dict = new ArrayDictionary<>(100);
+        for (int i = 0; i < 200; i++) {
+            dict.put(i, i * i);
+        }
+        assertEquals(200, dict.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i * i, dict.get(i));
+        }
+
+        IDictionary<String, String> empty = new ArrayDictionary<>(0);
+        empty.put("a", "b");
+        empty.put("c", "d");
+        assertEquals("b", empty.get("a"));
+        assertEquals("d", empty.get("c"));
+
+        try {
+            new ArrayDictionary<String, String>(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package datastructures.dictionaries;
 
 import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.concrete.dictionaries.HashStrategy;
 import datastructures.interfaces.IDictionary;
 import org.junit.Test;
 
@@ -65,6 +66,222 @@ public class TestChainedHashDictionary extends TestDictionary {
         assertFalse(dict.containsKey(key1));
     }
 
+    @Test(timeout=SECOND)
+    public void testExtremeHashCodesWithEachStrategy() {
+        int[] hashCodes = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1, 1 << 16, 1 << 30};
+        for (HashStrategy strategy : HashStrategy.values()) {
+            IDictionary<Wrapper<String>, String> dict = new ChainedHashDictionary<>(strategy);
+            for (int i = 0; i < hashCodes.length; i++) {
+                dict.put(new Wrapper<>("key" + i, hashCodes[i]), "val" + i);
+            }
+            for (int i = 0; i < hashCodes.length; i++) {
+                assertEquals("val" + i, dict.get(new Wrapper<>("key" + i, hashCodes[i])));
+            }
+            assertFalse(dict.containsKey(new Wrapper<>("missing", Integer.MIN_VALUE)));
+            assertEquals("val0", dict.remove(new Wrapper<>("key0", Integer.MIN_VALUE)));
+            assertEquals(hashCodes.length - 1, dict.size());
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testBucketSizeHistogram() {
+        for (HashStrategy strategy : HashStrategy.values()) {
+            ChainedHashDictionary<Integer, Integer> dict = new ChainedHashDictionary<>(strategy);
+            for (int i = 0; i < 5000; i++) {
+                dict.put(i, i);
+            }
+            int[] histogram = dict.bucketSizeHistogram();
+            int numKeys = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                numKeys += i * histogram[i];
+            }
+            assertEquals(5000, numKeys);
+            assertTrue(histogram[histogram.length - 1] > 0);
+        }
+
+        int[] empty = new ChainedHashDictionary<String, String>().bucketSizeHistogram();
+        assertEquals(1, empty.length);
+    }
+
+    @Test(timeout=SECOND)
+    public void testMixedStrategySpreadsHighBits() {
+        // These hash codes are all equal in their low 16 bits
+        ChainedHashDictionary<Wrapper<Integer>, Integer> dict = new ChainedHashDictionary<>(HashStrategy.MIXED);
+        for (int i = 0; i < 4096; i++) {
+            dict.put(new Wrapper<>(i, i << 16), i);
+        }
+        assertTrue(dict.bucketSizeHistogram().length <= 10);
+        for (int i = 0; i < 4096; i++) {
+            assertEquals(i, dict.get(new Wrapper<>(i, i << 16)));
+        }
+    }
+
+    // Builds 2^bits distinct strings that all have the same hash code, since
+    // "Aa" and "BB" do
+    private static String[] collidingStrings(int bits) {
+        String[] strings = new String[1 << bits];
+        for (int i = 0; i < strings.length; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int bit = 0; bit < bits; bit++) {
+                builder.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+            }
+            strings[i] = builder.toString();
+        }
+        return strings;
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testManyComparableKeysWithSameHashCode() {
+        String[] keys = collidingStrings(12);
+        IDictionary<String, Integer> dict = this.newDictionary();
+        for (int i = 0; i < keys.length; i++) {
+            dict.put(keys[i], i);
+        }
+        assertEquals(keys.length, dict.size());
+
+        // Stored keys are found where compareTo says, so these lookups are cheap
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < keys.length; i++) {
+                assertEquals(i, dict.get(keys[i]));
+            }
+        }
+        assertFalse(dict.containsKey("AaAa"));
+
+        // The cursor also walks the long bucket
+        IDictionary.Cursor<String, Integer> cursor = dict.cursor();
+        int count = 0;
+        while (cursor.advance()) {
+            assertEquals(keys[cursor.value()], cursor.key());
+            count++;
+        }
+        assertEquals(keys.length, count);
+
+        // Shrinking the bucket back down keeps every remaining key reachable
+        for (int i = 0; i < keys.length - 3; i++) {
+            assertEquals(i, dict.remove(keys[i]));
+        }
+        assertEquals(3, dict.size());
+        for (int i = keys.length - 3; i < keys.length; i++) {
+            assertEquals(i, dict.get(keys[i]));
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testMissingKeysWithSameHashCode() {
+        // Only every other key goes in; the rest share its hash code but are
+        // missing, so each lookup has to search the whole bucket
+        String[] keys = collidingStrings(10);
+        IDictionary<String, Integer> dict = this.newDictionary();
+        for (int i = 0; i < keys.length; i += 2) {
+            dict.put(keys[i], i);
+        }
+        for (int i = 1; i < keys.length; i += 2) {
+            assertFalse(dict.containsKey(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(i, dict.get(keys[i]));
+        }
+    }
+
+    // Equal by id alone, but ordered by a rank that many keys share, and
+    // that can change while stored, like a Wall's distance
+    private static class RankedKey implements Comparable<RankedKey> {
+        private int id;
+        private int rank;
+
+        public RankedKey(int id, int rank) {
+            this.id = id;
+            this.rank = rank;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RankedKey && ((RankedKey) o).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id % 3;
+        }
+
+        @Override
+        public int compareTo(RankedKey other) {
+            return Integer.compare(this.rank, other.rank);
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testKeysWhoseOrderChangesWhileStored() {
+        IDictionary<RankedKey, Integer> dict = this.newDictionary();
+        RankedKey[] keys = new RankedKey[300];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new RankedKey(i, i);
+            dict.put(keys[i], i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            keys[i].rank = (i * 7919) % keys.length;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, dict.get(new RankedKey(i, -i)));
+        }
+        assertFalse(dict.containsKey(new RankedKey(keys.length, 0)));
+
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(i, dict.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 1, dict.containsKey(keys[i]));
+        }
+        assertEquals(keys.length / 2, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testKeysThatCompareEqualWithoutBeingEqual() {
+        // Integers 0, 1 and 2 share hash codes with the RankedKeys too
+        IDictionary<Object, Integer> dict = this.newDictionary();
+        RankedKey[] keys = new RankedKey[300];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new RankedKey(i, i % 5);
+            dict.put(keys[i], i);
+        }
+        for (int i = 0; i < 3; i++) {
+            dict.put(i, -i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, dict.get(new RankedKey(i, i % 5)));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(-i, dict.get(i));
+        }
+        assertFalse(dict.containsKey(new RankedKey(keys.length, 0)));
+        assertFalse(dict.containsKey(3));
+
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(i, dict.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 1, dict.containsKey(keys[i]));
+        }
+        assertEquals(keys.length / 2 + 3, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testPresizedDictionary() {
+        IDictionary<Integer, Integer> dict = new ChainedHashDictionary<>(1000);
+        for (int i = 0; i < 2000; i++) {
+            dict.put(i, i * i);
+        }
+        assertEquals(2000, dict.size());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i * i, dict.get(i));
+        }
+
+        IDictionary<String, String> empty = new ChainedHashDictionary<>(0);
+        assertTrue(empty.isEmpty());
+        empty.put("a", "b");
+        assertEquals("b", empty.get("a"));
+    }
+
     @Test(timeout=10*SECOND)
     public void stressTest() {
         int limit = 1000000;
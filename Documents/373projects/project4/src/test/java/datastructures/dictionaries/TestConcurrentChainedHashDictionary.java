@@ -0,0 +1,184 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.concrete.dictionaries.ConcurrentChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestConcurrentChainedHashDictionary extends TestDictionary {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    protected <K, V> IDictionary<K, V> newDictionary() {
+        return new ConcurrentChainedHashDictionary<>();
+    }
+
+    // Runs task.run(t) on 'numThreads' threads, for t = 0, ..., numThreads - 1,
+    // and rethrows the first failure from any of them
+    private static void runThreads(int numThreads, ThreadTask task) {
+        AtomicReference<Throwable> failure = new AtomicReference<>(null);
+        Thread[] threads = new Thread[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    task.run(id);
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                throw new AssertionError(ex);
+            }
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int id);
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testConcurrentPutsThroughManyResizes() {
+        for (int numThreads : THREAD_COUNTS) {
+            int perThread = 200000 / numThreads;
+            IDictionary<Integer, Integer> dict = this.newDictionary();
+            runThreads(numThreads, id -> {
+                for (int i = id * perThread; i < (id + 1) * perThread; i++) {
+                    dict.put(i, -i);
+                    // The key just put must be visible, even while the table grows
+                    assertEquals(-i, dict.get(i));
+                }
+            });
+            assertEquals(numThreads * perThread, dict.size());
+            for (int i = 0; i < numThreads * perThread; i++) {
+                assertEquals(-i, dict.get(i));
+            }
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testConcurrentMergeIsAtomic() {
+        for (int numThreads : THREAD_COUNTS) {
+            IDictionary<Integer, Integer> counts = this.newDictionary();
+            runThreads(numThreads, id -> {
+                for (int i = 0; i < 100000; i++) {
+                    counts.merge(i % 5000, 1, Integer::sum);
+                }
+            });
+            assertEquals(5000, counts.size());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(20 * numThreads, counts.get(i));
+            }
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testPutIfAbsentHasOneWinner() {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        int[] wins = new int[8];
+        runThreads(8, id -> {
+            for (int i = 0; i < 20000; i++) {
+                if (dict.putIfAbsent(i, id) == null) {
+                    wins[id]++;
+                }
+            }
+        });
+        int total = 0;
+        for (int win : wins) {
+            total += win;
+        }
+        assertEquals(20000, total);
+        assertEquals(20000, dict.size());
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testConcurrentRemovesAndReads() {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        for (int i = 0; i < 100000; i++) {
+            dict.put(i, i);
+        }
+        // Writers remove the even keys, while readers check the odd keys never vanish
+        runThreads(8, id -> {
+            if (id < 4) {
+                for (int i = 2 * id; i < 100000; i += 8) {
+                    assertEquals(i, dict.remove(i));
+                }
+            } else {
+                for (int round = 0; round < 3; round++) {
+                    for (int i = 1; i < 100000; i += 2) {
+                        assertEquals(i, dict.get(i));
+                    }
+                }
+            }
+        });
+        assertEquals(50000, dict.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i % 2 == 1, dict.containsKey(i));
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testIteratorIsWeaklyConsistent() {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        for (int i = 0; i < 1000; i++) {
+            dict.put(i, i);
+        }
+        // Iterate while another thread adds enough keys to resize the table
+        // several times; the original keys must each appear exactly once
+        runThreads(2, id -> {
+            if (id == 0) {
+                for (int i = 1000; i < 200000; i++) {
+                    dict.put(i, i);
+                }
+            } else {
+                for (int round = 0; round < 20; round++) {
+                    boolean[] seen = new boolean[200000];
+                    for (KVPair<Integer, Integer> pair : dict) {
+                        int key = pair.getKey();
+                        assertFalse(seen[key]);
+                        seen[key] = true;
+                        assertEquals(key, pair.getValue());
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        assertTrue(seen[i]);
+                    }
+                }
+            }
+        });
+        int count = 0;
+        for (KVPair<Integer, Integer> pair : dict) {
+            count++;
+        }
+        assertEquals(200000, count);
+    }
+
+    @Test(timeout=SECOND)
+    public void testMappingFunctionCannotModifyDictionary() {
+        IDictionary<String, Integer> dict = this.newDictionary();
+        try {
+            dict.computeIfAbsent("a", key -> {
+                dict.put("a", 5);
+                return 1;
+            });
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            // All ok -- expected result
+        }
+        assertFalse(dict.containsKey("a"));
+        dict.put("a", 2);
+        assertEquals(2, dict.get("a"));
+    }
+}
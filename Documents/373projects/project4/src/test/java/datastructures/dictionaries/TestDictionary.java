@@ -504,4 +504,204 @@ public abstract class TestDictionary extends BaseTest {
             assertFalse(iter.hasNext());
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testRemoveMissingKeyKeepsSize() {
+        IDictionary<Integer, String> dict = this.newDictionary();
+        dict.put(3, "a");
+        dict.put(14, "b");
+        for (int i = 0; i < 5; i++) {
+            try {
+                dict.remove(25);
+                fail("Expected NoSuchKeyException");
+            } catch (NoSuchKeyException ex) {
+                // All ok -- expected result
+            }
+        }
+        assertEquals(2, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testPutIfAbsent() {
+        IDictionary<String, String> dict = this.makeBasicDictionary();
+        assertEquals("valA", dict.putIfAbsent("keyA", "other"));
+        assertEquals(null, dict.putIfAbsent("keyD", "valD"));
+        assertEquals(null, dict.putIfAbsent(null, "valNull"));
+        assertEquals("valNull", dict.putIfAbsent(null, "other"));
+        this.assertDictMatches(
+                new String[] {"keyA", "keyB", "keyC", "keyD", null},
+                new String[] {"valA", "valB", "valC", "valD", "valNull"},
+                dict);
+    }
+
+    @Test(timeout=SECOND)
+    public void testComputeIfAbsent() {
+        IDictionary<String, String> dict = this.makeBasicDictionary();
+        assertEquals("valA", dict.computeIfAbsent("keyA", key -> {
+            fail("Should not compute a value for a key that is present");
+            return null;
+        }));
+        assertEquals("KEYD", dict.computeIfAbsent("keyD", key -> key.toUpperCase()));
+        assertEquals(null, dict.computeIfAbsent("keyE", key -> null));
+        assertFalse(dict.containsKey("keyE"));
+        this.assertDictMatches(
+                new String[] {"keyA", "keyB", "keyC", "keyD"},
+                new String[] {"valA", "valB", "valC", "KEYD"},
+                dict);
+    }
+
+    @Test(timeout=SECOND)
+    public void testCompute() {
+        IDictionary<String, String> dict = this.makeBasicDictionary();
+        assertEquals("valA!", dict.compute("keyA", (key, value) -> value + "!"));
+        assertEquals("keyD=null", dict.compute("keyD", (key, value) -> key + "=" + value));
+        assertEquals(null, dict.compute("keyB", (key, value) -> null));
+        assertEquals(null, dict.compute("keyE", (key, value) -> null));
+        this.assertDictMatches(
+                new String[] {"keyA", "keyC", "keyD"},
+                new String[] {"valA!", "valC", "keyD=null"},
+                dict);
+    }
+
+    @Test(timeout=SECOND)
+    public void testMergeCountsWords() {
+        IDictionary<String, Integer> counts = this.newDictionary();
+        String[] words = {"a", "b", "a", "c", "a", "b", null, null};
+        for (String word : words) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        this.assertDictMatches(
+                new String[] {"a", "b", "c", null},
+                new Integer[] {3, 2, 1, 2},
+                counts);
+
+        // A null merge result removes the key
+        assertEquals(null, counts.merge("a", 1, (old, value) -> null));
+        assertFalse(counts.containsKey("a"));
+        assertEquals(3, counts.size());
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testMergeMany() {
+        IDictionary<Integer, Integer> counts = this.newDictionary();
+        for (int i = 0; i < 30000; i++) {
+            counts.merge(i % 1000, 1, Integer::sum);
+        }
+        assertEquals(1000, counts.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(30, counts.get(i));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testPutAllOverlapping() {
+        IDictionary<String, Integer> dict = this.newDictionary();
+        dict.put("a", 1);
+        dict.put("b", 2);
+        IDictionary<String, Integer> other = this.newDictionary();
+        other.put("b", 20);
+        other.put("c", 30);
+        other.put(null, 40);
+
+        dict.putAll(other);
+        assertEquals(4, dict.size());
+        assertEquals(1, dict.get("a"));
+        assertEquals(20, dict.get("b"));
+        assertEquals(30, dict.get("c"));
+        assertEquals(40, dict.get(null));
+        assertEquals(3, other.size());
+
+        dict.putAll(this.newDictionary());
+        assertEquals(4, dict.size());
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testPutAllMany() {
+        IDictionary<Integer, Integer> source = this.newDictionary();
+        for (int i = 0; i < 3000; i++) {
+            source.put(i, -i);
+        }
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        for (int i = 2000; i < 4000; i++) {
+            dict.put(i, i);
+        }
+
+        dict.putAll(source);
+        assertEquals(4000, dict.size());
+        for (int i = 0; i < 4000; i++) {
+            assertEquals(i < 3000 ? -i : i, dict.get(i));
+        }
+
+        // The dictionary still grows normally afterwards
+        dict.put(-1, 1);
+        assertEquals(4001, dict.size());
+        assertEquals(1, dict.get(-1));
+    }
+
+    @Test(timeout=SECOND)
+    public void testForEachVisitsEveryPair() {
+        IDictionary<String, Integer> dict = this.newDictionary();
+        for (int i = 0; i < 100; i++) {
+            dict.put("key" + i, i);
+        }
+        dict.put(null, -1);
+
+        boolean[] seen = new boolean[100];
+        int[] sum = new int[1];
+        dict.forEach((key, value) -> {
+            if (key == null) {
+                assertEquals(-1, value);
+            } else {
+                assertEquals("key" + value, key);
+                assertFalse(seen[value]);
+                seen[value] = true;
+            }
+            sum[0] += value;
+        });
+        assertEquals(99 * 100 / 2 - 1, sum[0]);
+
+        this.newDictionary().forEach((key, value) -> fail("Empty dictionary has no pairs"));
+    }
+
+    @Test(timeout=SECOND)
+    public void testCursorVisitsEveryPair() {
+        IDictionary<String, Integer> dict = this.newDictionary();
+        IDictionary.Cursor<String, Integer> empty = dict.cursor();
+        assertFalse(empty.advance());
+        assertFalse(empty.advance());
+
+        for (int i = 0; i < 100; i++) {
+            dict.put("key" + i, i);
+        }
+        dict.put(null, -1);
+        IDictionary.Cursor<String, Integer> cursor = dict.cursor();
+        try {
+            cursor.key();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+
+        boolean[] seen = new boolean[100];
+        int count = 0;
+        while (cursor.advance()) {
+            count++;
+            if (cursor.key() == null) {
+                assertEquals(-1, cursor.value());
+            } else {
+                int value = cursor.value();
+                assertEquals("key" + value, cursor.key());
+                assertFalse(seen[value]);
+                seen[value] = true;
+            }
+        }
+        assertEquals(101, count);
+        assertFalse(cursor.advance());
+        try {
+            cursor.value();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+    }
 }
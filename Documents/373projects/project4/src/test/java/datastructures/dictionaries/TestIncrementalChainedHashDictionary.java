@@ -0,0 +1,71 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs every ChainedHashDictionary test again, against a dictionary that
+ * resizes incrementally.
+ */
+public class TestIncrementalChainedHashDictionary extends TestChainedHashDictionary {
+    @Override
+    protected <K, V> IDictionary<K, V> newDictionary() {
+        return new ChainedHashDictionary<>(0, true);
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testRandomOperationsMatchHashMap() {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random rand = new Random(373);
+        for (int i = 0; i < 300000; i++) {
+            // The key range keeps growing, so most operations happen while
+            // some resize is still moving keys over
+            int key = rand.nextInt(i / 2 + 10);
+            int choice = rand.nextInt(4);
+            if (choice == 0 || choice == 1) {
+                dict.put(key, i);
+                expected.put(key, i);
+            } else if (choice == 2 && expected.containsKey(key)) {
+                assertEquals(expected.remove(key), dict.remove(key));
+            } else {
+                assertEquals(expected.containsKey(key), dict.containsKey(key));
+                assertEquals(expected.get(key), dict.getOrDefault(key, null));
+            }
+            assertEquals(expected.size(), dict.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), dict.get(entry.getKey()));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIterateInTheMiddleOfResize() {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        for (int i = 0; i < 12; i++) {
+            dict.put(i, i);
+        }
+        // The 12th put started a resize that later writes have not finished
+        dict.merge(0, 100, Integer::sum);
+        int count = 0;
+        int sum = 0;
+        for (KVPair<Integer, Integer> pair : dict) {
+            count++;
+            sum += pair.getValue();
+        }
+        assertEquals(12, count);
+        assertEquals(66 + 100, sum);
+
+        dict.put(12, 12);
+        assertEquals(13, dict.size());
+        for (int i = 1; i <= 12; i++) {
+            assertEquals(i, dict.get(i));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.dictionaries.IntObjectDictionary;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIntObjectDictionary extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testMissingKeysReturnNull() {
+        IntObjectDictionary<String> dict = new IntObjectDictionary<>();
+        assertNull(dict.get(0));
+        assertNull(dict.remove(0));
+        assertFalse(dict.containsKey(0));
+        assertTrue(dict.isEmpty());
+    }
+
+    @Test(timeout=SECOND)
+    public void testPutReturnsOldValue() {
+        IntObjectDictionary<String> dict = new IntObjectDictionary<>();
+        assertNull(dict.put(0, "a"));
+        assertNull(dict.put(-7, "b"));
+        assertEquals("a", dict.put(0, "c"));
+        assertEquals("c", dict.get(0));
+        assertEquals("b", dict.get(-7));
+        assertEquals(2, dict.size());
+        assertEquals("b", dict.remove(-7));
+        assertFalse(dict.containsKey(-7));
+        assertEquals(1, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testNullValue() {
+        IntObjectDictionary<String> dict = new IntObjectDictionary<>();
+        try {
+            dict.put(1, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        assertTrue(dict.isEmpty());
+    }
+
+    @Test(timeout=SECOND)
+    public void testKeysThatShareHomeSlots() {
+        // Multiples of a large power of two differ only in their high bits
+        IntObjectDictionary<Integer> dict = new IntObjectDictionary<>();
+        for (int i = 0; i < 1000; i++) {
+            dict.put(i << 20, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, dict.remove(i << 20));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? null : i, dict.get(i << 20));
+        }
+        assertEquals(500, dict.size());
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testRandomOperationsMatchHashMap() {
+        IntObjectDictionary<Integer> dict = new IntObjectDictionary<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random rand = new Random(22);
+        for (int i = 0; i < 200000; i++) {
+            int key = rand.nextInt(5000) - 2500;
+            if (rand.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), dict.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), dict.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), dict.size());
+        for (int key = -2500; key < 2500; key++) {
+            assertEquals(expected.get(key), dict.get(key));
+        }
+
+        int[] visited = {0};
+        dict.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+}
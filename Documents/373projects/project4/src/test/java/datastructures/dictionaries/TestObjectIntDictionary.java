@@ -0,0 +1,116 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.dictionaries.ObjectIntDictionary;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestObjectIntDictionary extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testMissingKeysReturnMissingValue() {
+        ObjectIntDictionary<String> dict = new ObjectIntDictionary<>();
+        assertEquals(-1, dict.get("a"));
+        assertEquals(-1, dict.remove("a"));
+        assertFalse(dict.containsKey("a"));
+        assertTrue(dict.isEmpty());
+
+        ObjectIntDictionary<String> custom = new ObjectIntDictionary<>(0, Integer.MIN_VALUE);
+        assertEquals(Integer.MIN_VALUE, custom.missingValue());
+        assertEquals(Integer.MIN_VALUE, custom.get("a"));
+        assertEquals(Integer.MIN_VALUE, custom.put("a", -1));
+        assertEquals(-1, custom.get("a"));
+    }
+
+    @Test(timeout=SECOND)
+    public void testPutReturnsOldValue() {
+        ObjectIntDictionary<String> dict = new ObjectIntDictionary<>();
+        assertEquals(-1, dict.put("a", 3));
+        assertEquals(3, dict.put("a", 4));
+        assertEquals(4, dict.putIfAbsent("a", 5));
+        assertEquals(4, dict.get("a"));
+        assertEquals(-1, dict.putIfAbsent("b", 6));
+        assertEquals(2, dict.size());
+        assertEquals(6, dict.remove("b"));
+        assertEquals(1, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testNullKey() {
+        ObjectIntDictionary<String> dict = new ObjectIntDictionary<>();
+        dict.put("a", 1);
+        assertFalse(dict.containsKey(null));
+        assertEquals(-1, dict.put(null, 2));
+        assertTrue(dict.containsKey(null));
+        assertEquals(2, dict.get(null));
+        assertEquals(2, dict.size());
+
+        int[] sum = {0};
+        dict.forEach((key, value) -> sum[0] += value);
+        assertEquals(3, sum[0]);
+
+        assertEquals(2, dict.remove(null));
+        assertFalse(dict.containsKey(null));
+        assertEquals(1, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testManyObjectsWithSameHashCode() {
+        ObjectIntDictionary<Wrapper<String>> dict = new ObjectIntDictionary<>();
+        for (int i = 0; i < 1000; i++) {
+            dict.put(new Wrapper<>("" + i, 0), i);
+        }
+        assertEquals(1000, dict.size());
+
+        for (int i = 0; i < 1000; i += 3) {
+            assertEquals(i, dict.remove(new Wrapper<>("" + i, 0)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 == 0 ? -1 : i, dict.get(new Wrapper<>("" + i, 0)));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testNegativeExpectedSize() {
+        try {
+            new ObjectIntDictionary<String>(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=5 * SECOND)
+    public void testRandomOperationsMatchHashMap() {
+        ObjectIntDictionary<Integer> dict = new ObjectIntDictionary<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random rand = new Random(22);
+        for (int i = 0; i < 200000; i++) {
+            int key = rand.nextInt(5000);
+            if (rand.nextInt(3) == 0) {
+                Integer old = expected.remove(key);
+                assertEquals(old == null ? -1 : old, dict.remove(key));
+            } else {
+                Integer old = expected.put(key, i);
+                assertEquals(old == null ? -1 : old, dict.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), dict.size());
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.getOrDefault(key, -1), dict.get(key));
+        }
+
+        int[] visited = {0};
+        dict.forEach((key, value) -> {
+            assertEquals(expected.get(key), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+}
@@ -0,0 +1,131 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.concrete.dictionaries.OpenAddressingDictionary;
+import datastructures.interfaces.IDictionary;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestOpenAddressingDictionary extends TestDictionary {
+    protected <K, V> IDictionary<K, V> newDictionary() {
+        return new OpenAddressingDictionary<>();
+    }
+
+    @Test(timeout=SECOND)
+    public void testManyObjectsWithSameHashCode() {
+        IDictionary<Wrapper<String>, Integer> map = this.newDictionary();
+        for (int i = 0; i < 1000; i++) {
+            map.put(new Wrapper<>("" + i, 0), i);
+        }
+        assertEquals(1000, map.size());
+
+        // Removing from the middle of one long probe run must not strand later keys
+        for (int i = 0; i < 1000; i += 3) {
+            assertEquals(i, map.remove(new Wrapper<>("" + i, 0)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            String key = "" + i;
+            assertEquals(i % 3 != 0, map.containsKey(new Wrapper<>(key, 0)));
+            if (i % 3 != 0) {
+                assertEquals(i, map.get(new Wrapper<>(key, 0)));
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testExtremeHashCodes() {
+        IDictionary<Wrapper<String>, String> dict = this.newDictionary();
+        int[] hashCodes = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1, 1 << 16, 1 << 30};
+        for (int i = 0; i < hashCodes.length; i++) {
+            dict.put(new Wrapper<>("key" + i, hashCodes[i]), "val" + i);
+        }
+        for (int i = 0; i < hashCodes.length; i++) {
+            assertEquals("val" + i, dict.get(new Wrapper<>("key" + i, hashCodes[i])));
+        }
+        assertFalse(dict.containsKey(new Wrapper<>("missing", Integer.MIN_VALUE)));
+    }
+
+    @Test(timeout=SECOND)
+    public void testNullKeyAlongsideOthers() {
+        IDictionary<String, Integer> dict = this.newDictionary();
+        dict.put("a", 1);
+        dict.put(null, 2);
+        dict.put("b", 3);
+        assertEquals(3, dict.size());
+        assertEquals(2, dict.getOrDefault(null, -1));
+
+        int count = 0;
+        boolean sawNull = false;
+        for (KVPair<String, Integer> pair : dict) {
+            count++;
+            sawNull = sawNull || pair.getKey() == null;
+        }
+        assertEquals(3, count);
+        assertTrue(sawNull);
+
+        assertEquals(2, dict.remove(null));
+        assertFalse(dict.containsKey(null));
+        assertEquals(-1, dict.getOrDefault(null, -1));
+        assertEquals(2, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testPresizedDictionary() {
+        IDictionary<Integer, Integer> dict = new OpenAddressingDictionary<>(1000);
+        for (int i = 0; i < 2000; i++) {
+            dict.put(i, i * i);
+        }
+        assertEquals(2000, dict.size());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i * i, dict.get(i));
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testRandomOperationsMatchHashMap() {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random rand = new Random(373);
+        for (int i = 0; i < 500000; i++) {
+            // A small key range keeps probe runs long and forces many removals
+            int key = rand.nextInt(5000) * 1024;
+            int choice = rand.nextInt(3);
+            if (choice == 0) {
+                dict.put(key, i);
+                expected.put(key, i);
+            } else if (choice == 1 && expected.containsKey(key)) {
+                assertEquals(expected.remove(key), dict.remove(key));
+            } else {
+                assertEquals(expected.containsKey(key), dict.containsKey(key));
+            }
+        }
+        assertEquals(expected.size(), dict.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), dict.get(entry.getKey()));
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void stressTest() {
+        int limit = 1000000;
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        for (int i = 0; i < limit; i++) {
+            dict.put(i, i);
+            assertEquals(i, dict.get(i));
+        }
+        for (int i = 0; i < limit; i++) {
+            dict.put(i, -i);
+        }
+        for (int i = 0; i < limit; i++) {
+            assertEquals(-i, dict.get(i));
+            dict.remove(i);
+        }
+        assertTrue(dict.isEmpty());
+    }
+}
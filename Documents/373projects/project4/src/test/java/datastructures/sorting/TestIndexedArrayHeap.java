@@ -0,0 +1,201 @@
+package datastructures.sorting;
+
+import datastructures.concrete.IndexedArrayHeap;
+import datastructures.interfaces.IIndexedPriorityQueue;
+import misc.BaseTest;
+import misc.exceptions.EmptyContainerException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIndexedArrayHeap extends BaseTest {
+    /**
+     * A heap entry whose identity is its name and whose priority can change.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private String name;
+        private double priority;
+
+        public Entry(String name, double priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Double.compare(this.priority, other.priority);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) { return true; }
+            if (o == null || getClass() != o.getClass()) { return false; }
+            return this.name.equals(((Entry) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+    }
+
+    protected <T extends Comparable<T>> IIndexedPriorityQueue<T> makeInstance() {
+        return new IndexedArrayHeap<>();
+    }
+
+    @Test(timeout=SECOND)
+    public void testBasicInsertAndRemoveMin() {
+        IIndexedPriorityQueue<Integer> heap = this.makeInstance();
+        int[] items = {5, 20, 10, 6, 7, 3, 1, 2, 8, 11};
+        for (int item : items) {
+            heap.insert(item);
+        }
+        assertEquals(items.length, heap.size());
+        int[] expected = {1, 2, 3, 5, 6, 7, 8, 10, 11, 20};
+        for (int item : expected) {
+            assertEquals(item, heap.peekMin());
+            assertEquals(item, heap.removeMin());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(timeout=SECOND)
+    public void testEmptyHeapThrows() {
+        IIndexedPriorityQueue<Integer> heap = this.makeInstance();
+        try {
+            heap.removeMin();
+            fail("Expected EmptyContainerException");
+        } catch (EmptyContainerException ex) {
+            // All ok -- expected result
+        }
+        try {
+            heap.peekMin();
+            fail("Expected EmptyContainerException");
+        } catch (EmptyContainerException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testDuplicateAndNullInsertThrows() {
+        IIndexedPriorityQueue<Integer> heap = this.makeInstance();
+        heap.insert(3);
+        try {
+            heap.insert(3);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            heap.insert(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        assertEquals(1, heap.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testContainsAndRemove() {
+        IIndexedPriorityQueue<Integer> heap = this.makeInstance();
+        for (int i = 0; i < 50; i++) {
+            heap.insert(i);
+        }
+        assertTrue(heap.contains(17));
+        heap.remove(17);
+        assertFalse(heap.contains(17));
+        heap.remove(0);
+        heap.remove(49);
+        assertEquals(47, heap.size());
+
+        try {
+            heap.remove(17);
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+
+        for (int i = 1; i < 49; i++) {
+            if (i != 17) {
+                assertEquals(i, heap.removeMin());
+            }
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(timeout=SECOND)
+    public void testDecreaseKeyMovesToFront() {
+        IIndexedPriorityQueue<Entry> heap = this.makeInstance();
+        for (int i = 0; i < 100; i++) {
+            heap.insert(new Entry("e" + i, i));
+        }
+        heap.decreaseKey(new Entry("e99", -1));
+        assertEquals("e99", heap.peekMin().name);
+        assertEquals(100, heap.size());
+
+        Entry entry = new Entry("e50", 50);
+        assertTrue(heap.contains(entry));
+        try {
+            heap.decreaseKey(new Entry("e50", 500));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            heap.decreaseKey(new Entry("missing", 0));
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testChangePriorityBothDirections() {
+        IIndexedPriorityQueue<Entry> heap = this.makeInstance();
+        for (int i = 0; i < 10; i++) {
+            heap.insert(new Entry("e" + i, i));
+        }
+        heap.changePriority(new Entry("e0", 100));
+        heap.changePriority(new Entry("e9", -5));
+
+        assertEquals("e9", heap.removeMin().name);
+        for (int i = 1; i < 9; i++) {
+            assertEquals("e" + i, heap.removeMin().name);
+        }
+        assertEquals("e0", heap.removeMin().name);
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testRandomChangesMatchSortedOrder() {
+        IIndexedPriorityQueue<Entry> heap = this.makeInstance();
+        Random rand = new Random(373);
+        int count = 100000;
+        double[] priorities = new double[count];
+        for (int i = 0; i < count; i++) {
+            priorities[i] = rand.nextDouble();
+            heap.insert(new Entry("e" + i, priorities[i]));
+        }
+        for (int i = 0; i < count; i++) {
+            int index = rand.nextInt(count);
+            priorities[index] = rand.nextDouble();
+            heap.changePriority(new Entry("e" + index, priorities[index]));
+        }
+
+        List<Double> expected = new ArrayList<>();
+        for (double priority : priorities) {
+            expected.add(priority);
+        }
+        Collections.sort(expected);
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.get(i), heap.removeMin().priority, 0.0);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package datastructures.sorting;
+
+import datastructures.concrete.IntDoubleHeap;
+import misc.BaseTest;
+import misc.exceptions.EmptyContainerException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIntDoubleHeap extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testBasicInsertAndRemoveMin() {
+        IntDoubleHeap heap = new IntDoubleHeap(10);
+        heap.insert(3, 3.5);
+        heap.insert(7, 0.25);
+        heap.insert(0, 2.0);
+        heap.insert(9, 0.5);
+
+        assertEquals(4, heap.size());
+        assertEquals(7, heap.peekMin());
+        assertEquals(0.25, heap.peekMinPriority(), 0.0);
+        assertEquals(7, heap.removeMin());
+        assertEquals(9, heap.removeMin());
+        assertEquals(0, heap.removeMin());
+        assertEquals(3, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(timeout=SECOND)
+    public void testFractionalPrioritiesOrderCorrectly() {
+        IntDoubleHeap heap = new IntDoubleHeap(3);
+        heap.insert(0, 1.9);
+        heap.insert(1, 1.1);
+        heap.insert(2, 1.5);
+        assertEquals(1, heap.removeMin());
+        assertEquals(2, heap.removeMin());
+        assertEquals(0, heap.removeMin());
+    }
+
+    @Test(timeout=SECOND)
+    public void testEmptyHeapThrows() {
+        IntDoubleHeap heap = new IntDoubleHeap(5);
+        try {
+            heap.removeMin();
+            fail("Expected EmptyContainerException");
+        } catch (EmptyContainerException ex) {
+            // All ok -- expected result
+        }
+        try {
+            heap.peekMin();
+            fail("Expected EmptyContainerException");
+        } catch (EmptyContainerException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIllegalInsertsThrow() {
+        IntDoubleHeap heap = new IntDoubleHeap(5);
+        heap.insert(1, 1.0);
+        int[] badIds = {-1, 5, 1};
+        for (int id : badIds) {
+            try {
+                heap.insert(id, 2.0);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException ex) {
+                // All ok -- expected result
+            }
+        }
+        try {
+            heap.insert(2, Double.NaN);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        assertEquals(1, heap.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testDecreaseKeyAndChangePriority() {
+        IntDoubleHeap heap = new IntDoubleHeap(100);
+        for (int i = 0; i < 100; i++) {
+            heap.insert(i, i);
+        }
+        heap.decreaseKey(99, -1.0);
+        assertEquals(99, heap.peekMin());
+        assertEquals(-1.0, heap.priority(99), 0.0);
+
+        try {
+            heap.decreaseKey(50, 500.0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+
+        heap.changePriority(99, 1000.0);
+        heap.changePriority(0, 99.5);
+        for (int i = 1; i < 99; i++) {
+            assertEquals(i, heap.removeMin());
+        }
+        assertEquals(0, heap.removeMin());
+        assertEquals(99, heap.removeMin());
+    }
+
+    @Test(timeout=SECOND)
+    public void testRemoveAndContains() {
+        IntDoubleHeap heap = new IntDoubleHeap(20);
+        for (int i = 0; i < 20; i++) {
+            heap.insert(i, 20 - i);
+        }
+        heap.remove(10);
+        assertFalse(heap.contains(10));
+        assertFalse(heap.contains(-3));
+        assertFalse(heap.contains(20));
+        try {
+            heap.remove(10);
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+
+        // Removed ids can be inserted again
+        heap.insert(10, -5.0);
+        assertEquals(10, heap.removeMin());
+        for (int i = 19; i >= 0; i--) {
+            if (i != 10) {
+                assertEquals(i, heap.removeMin());
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testClearAllowsReuse() {
+        IntDoubleHeap heap = new IntDoubleHeap(10);
+        for (int i = 0; i < 10; i++) {
+            heap.insert(i, i);
+        }
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            assertFalse(heap.contains(i));
+        }
+        heap.insert(4, 1.0);
+        assertEquals(4, heap.removeMin());
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testLargeRandomMatchesSortedOrder() {
+        int count = 1000000;
+        IntDoubleHeap heap = new IntDoubleHeap(count);
+        Random rand = new Random(373);
+        double[] priorities = new double[count];
+        for (int i = 0; i < count; i++) {
+            priorities[i] = rand.nextDouble();
+            heap.insert(i, priorities[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            int id = rand.nextInt(count);
+            priorities[id] = priorities[id] * rand.nextDouble();
+            heap.decreaseKey(id, priorities[id]);
+        }
+
+        Arrays.sort(priorities);
+        for (int i = 0; i < count; i++) {
+            assertEquals(priorities[i], heap.peekMinPriority(), 0.0);
+            heap.removeMin();
+        }
+    }
+}